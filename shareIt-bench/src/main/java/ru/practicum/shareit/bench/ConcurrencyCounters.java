@@ -0,0 +1,29 @@
+package ru.practicum.shareit.bench;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.ThreadParams;
+
+// Counters are summed over the benchmark threads, so only the first thread reports the peak.
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.EVENTS)
+public class ConcurrencyCounters {
+    public long maxConcurrentRequests;
+
+    private boolean reporting;
+
+    @Setup(Level.Iteration)
+    public void reset(ThreadParams threadParams) {
+        reporting = threadParams.getThreadIndex() == 0;
+        maxConcurrentRequests = 0;
+    }
+
+    void record(ConcurrencyProbe probe) {
+        if (reporting) {
+            maxConcurrentRequests = probe.getMaxInFlight();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package ru.practicum.shareit.bench;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.model.Status;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Ids start at 1 and the sequences are restarted past them, so rows saved later do not collide.
+@RequiredArgsConstructor
+public class DatasetSeeder {
+    private static final int BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void seed(int users, int itemsPerUser, int bookingsPerItem) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            rows.add(new Object[]{i + 1L, "user" + i, "user" + i + "@shareit.ru"});
+        }
+        insert("users", "INSERT INTO users (id, name, email) VALUES (?, ?, ?)", rows);
+        List<Long> userIds = ids("users");
+
+        rows.clear();
+        for (int i = 0; i < users; i++) {
+            rows.add(new Object[]{i + 1L, "request " + i, userIds.get(i), Timestamp.valueOf(now.minusHours(i))});
+        }
+        insert("requests", "INSERT INTO requests (id, description, requester_id, created) VALUES (?, ?, ?, ?)",
+                rows);
+        List<Long> requestIds = ids("requests");
+
+        rows.clear();
+        for (int i = 0; i < users; i++) {
+            Long requestId = requestIds.get((i + 1) % users);
+            for (int j = 0; j < itemsPerUser; j++) {
+                rows.add(new Object[]{rows.size() + 1L, "item " + i + "-" + j, "description of drill " + j,
+                        j % 5 != 0, userIds.get(i), j == 0 ? requestId : null});
+            }
+        }
+        insert("items", "INSERT INTO items (id, name, description, is_available, owner_id, request_id) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", rows);
+        List<Long> itemIds = ids("items");
+
+        rows.clear();
+        List<Object[]> comments = new ArrayList<>();
+        Status[] statuses = Status.values();
+        for (int i = 0; i < itemIds.size(); i++) {
+            Long bookerId = userIds.get((i / itemsPerUser + 1) % users);
+            for (int j = 0; j < bookingsPerItem; j++) {
+                LocalDateTime start = now.plusDays(2L * j - bookingsPerItem);
+                rows.add(new Object[]{rows.size() + 1L, Timestamp.valueOf(start),
+                        Timestamp.valueOf(start.plusDays(1)), itemIds.get(i), bookerId,
+                        statuses[j % statuses.length].name()});
+            }
+            comments.add(new Object[]{comments.size() + 1L, "comment " + i, itemIds.get(i), bookerId,
+                    Timestamp.valueOf(now)});
+        }
+        insert("bookings", "INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", rows);
+        insert("comments", "INSERT INTO comments (id, text, item_id, author_id, created) VALUES (?, ?, ?, ?, ?)",
+                comments);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    private void insert(String table, String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(from + BATCH_SIZE, rows.size())));
+        }
+        jdbcTemplate.execute("ALTER SEQUENCE " + table + "_seq RESTART WITH " + (rows.size() + 1));
+    }
+
+    private List<Long> ids(String table) {
+        return jdbcTemplate.queryForList("SELECT id FROM " + table + " ORDER BY id", Long.class);
+    }
+}
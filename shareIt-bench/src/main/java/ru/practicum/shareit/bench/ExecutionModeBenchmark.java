@@ -0,0 +1,30 @@
+package ru.practicum.shareit.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(400)
+@Fork(1)
+public class ExecutionModeBenchmark {
+
+    @Benchmark
+    public int getItem(ShareItHttpState state, ConcurrencyCounters counters) throws IOException, InterruptedException {
+        int status = state.httpClient.send(state.getItemRequest, HttpResponse.BodyHandlers.discarding()).statusCode();
+        counters.record(state.concurrencyProbe);
+        return status;
+    }
+}
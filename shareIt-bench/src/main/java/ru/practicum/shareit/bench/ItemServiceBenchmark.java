@@ -0,0 +1,36 @@
+package ru.practicum.shareit.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemServiceBenchmark {
+
+    @Benchmark
+    public List<ItemDto> getItemsByUser(ShareItState state) {
+        return state.itemService.getItemsByUser(state.userId);
+    }
+
+    @Benchmark
+    public ItemDto getItemByOwner(ShareItState state) {
+        return state.itemService.getItem(state.userId, state.itemId);
+    }
+
+    @Benchmark
+    public List<ItemDto> searchItemsByKeyword(ShareItState state) {
+        return state.itemService.searchItemsByKeyword("drill", 0, 20);
+    }
+}
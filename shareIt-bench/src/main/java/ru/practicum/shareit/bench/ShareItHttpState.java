@@ -0,0 +1,75 @@
+package ru.practicum.shareit.bench;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItServer;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+
+@State(Scope.Benchmark)
+public class ShareItHttpState {
+    @Param({"platform", "virtual"})
+    public String executionMode;
+
+    @Param({"20"})
+    public int dbLatencyMillis;
+
+    @Param({"10"})
+    public int maxPoolSize;
+
+    public HttpClient httpClient;
+    public HttpRequest getItemRequest;
+
+    public ConcurrencyProbe concurrencyProbe;
+
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void startServer() {
+        context = new SpringApplicationBuilder(ShareItServer.class, SlowDatabaseConfig.class, ConcurrencyProbe.class)
+                .run("--server.port=0",
+                        "--shareit.execution-mode=" + executionMode,
+                        "--spring.datasource.hikari.maximum-pool-size=" + maxPoolSize,
+                        "--spring.main.banner-mode=off",
+                        "--spring.datasource.url=jdbc:h2:mem:shareit-http-bench",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.format_sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                        "--logging.level.org.springframework.transaction.interceptor=WARN",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN");
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        new DatasetSeeder(jdbcTemplate).seed(10, 10, 5);
+        long userId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM users", Long.class);
+        long itemId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM items WHERE owner_id = ?", Long.class, userId);
+        context.getBean(SlowDatabaseConfig.DatabaseLatency.class).set(dbLatencyMillis);
+        concurrencyProbe = context.getBean(ConcurrencyProbe.class);
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        getItemRequest = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/items/" + itemId))
+                .header("X-Sharer-User-Id", String.valueOf(userId))
+                .build();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetConcurrency() {
+        concurrencyProbe.reset();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopServer() {
+        context.close();
+    }
+}
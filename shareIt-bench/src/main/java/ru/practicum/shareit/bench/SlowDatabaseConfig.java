@@ -0,0 +1,80 @@
+package ru.practicum.shareit.bench;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Configuration
+public class SlowDatabaseConfig {
+
+    @Bean
+    public static DatabaseLatency databaseLatency() {
+        return new DatabaseLatency();
+    }
+
+    @Bean
+    public static BeanPostProcessor slowDataSourcePostProcessor(DatabaseLatency databaseLatency) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource ? new SlowDataSource((DataSource) bean, databaseLatency) : bean;
+            }
+        };
+    }
+
+    public static class DatabaseLatency {
+        private final AtomicLong millis = new AtomicLong();
+
+        public void set(long millis) {
+            this.millis.set(millis);
+        }
+
+        void await() throws InterruptedException {
+            long delay = millis.get();
+            if (delay > 0) {
+                Thread.sleep(delay);
+            }
+        }
+    }
+
+    private static class SlowDataSource extends DelegatingDataSource {
+        private final DatabaseLatency latency;
+
+        SlowDataSource(DataSource target, DatabaseLatency latency) {
+            super(target);
+            this.latency = latency;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return slow(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return slow(super.getConnection(username, password));
+        }
+
+        private Connection slow(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                        if (method.getName().startsWith("prepare")) {
+                            latency.await();
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+    }
+}
@@ -1,52 +1,80 @@
 package ru.practicum.shareit.booking;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.http.*;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.exception.InvalidBatchSizeException;
 import ru.practicum.shareit.booking.exception.InvalidDateExeption;
 import ru.practicum.shareit.booking.exception.InvalidStateException;
 import ru.practicum.shareit.booking.model.NewBookingDto;
+import ru.practicum.shareit.cache.ResponseCache;
 import ru.practicum.shareit.client.BaseClient;
 
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 
 @Component
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
+    private static final String ITEMS_PATH = "/items";
+
+    private final ResponseCache responseCache;
+    private final ObjectMapper objectMapper;
+    private final int maxBatchSize;
     List<String> statuses = List.of("ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED");
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(builder.uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                         ResponseCache responseCache, ObjectMapper objectMapper,
+                         @Value("${shareit.booking.batch.max-size}") int maxBatchSize) {
+        super(builder.baseUrl(serverUrl + API_PREFIX).build());
+        this.responseCache = responseCache;
+        this.objectMapper = objectMapper;
+        this.maxBatchSize = maxBatchSize;
     }
 
-    public ResponseEntity<Object> addBooking(long userId, NewBookingDto newBookingDto) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> addBooking(long userId, NewBookingDto newBookingDto) {
         if (isDateValid(newBookingDto)) {
-            return post("/", userId, newBookingDto);
+            return post("/", userId, newBookingDto)
+                    .doOnNext(response -> responseCache.evict(ITEMS_PATH + "/" + newBookingDto.getItemId()));
         } else throw new InvalidDateExeption("Invalid date");
     }
 
-    public ResponseEntity<Object> update(long bookingId, long userId, boolean approved) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> addBookings(long userId, List<NewBookingDto> bookingDtos) {
+        if (bookingDtos.isEmpty() || bookingDtos.size() > maxBatchSize) {
+            throw new InvalidBatchSizeException("Batch must contain from 1 to " + maxBatchSize + " bookings");
+        }
+        return post("/batch", userId, bookingDtos)
+                .doOnNext(response -> responseCache.evict(bookingDtos.stream()
+                        .map(bookingDto -> ITEMS_PATH + "/" + bookingDto.getItemId())
+                        .distinct()
+                        .toArray(String[]::new)));
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> update(long bookingId, long userId, boolean approved) {
         Map<String, Object> parameters = Map.of(
                 "approved", approved);
-        return patch("/" + bookingId + "?approved=" + approved, userId, parameters);
+        return patch("/" + bookingId + "?approved=" + approved, userId, parameters)
+                .flatMap(this::evictBookedItem);
     }
 
-    public ResponseEntity<Object> getBookingById(long bookingId, long userId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getBookingById(long bookingId, long userId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getAllBookingsByUser(
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAllBookingsByUser(
             long userId, String state, @PositiveOrZero long from, @Positive long size) {
         if (!statuses.contains(state)) {
             throw new InvalidStateException("Unknown state: UNSUPPORTED_STATUS");
@@ -58,7 +86,7 @@ public class BookingClient extends BaseClient {
         return get("?state={state}&from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getAllBookingsAllItemsByOwner(
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAllBookingsAllItemsByOwner(
             long userId, String state, @PositiveOrZero long from, @Positive long size) {
         if (!statuses.contains(state)) {
             throw new InvalidStateException("Unknown state: UNSUPPORTED_STATUS");
@@ -70,6 +98,58 @@ public class BookingClient extends BaseClient {
         return get("/owner/?state={state}&from={from}&size={size}", userId, parameters);
     }
 
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getBookingPageByUser(long userId, String state, String cursor, @Positive long size) {
+        if (!statuses.contains(state)) {
+            throw new InvalidStateException("Unknown state: UNSUPPORTED_STATUS");
+        }
+        Map<String, Object> parameters = Map.of(
+                "state", state,
+                "cursor", cursor,
+                "size", size);
+        return get("?state={state}&cursor={cursor}&size={size}", userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getBookingPageAllItemsByOwner(long userId, String state, String cursor,
+                                                                @Positive long size) {
+        if (!statuses.contains(state)) {
+            throw new InvalidStateException("Unknown state: UNSUPPORTED_STATUS");
+        }
+        Map<String, Object> parameters = Map.of(
+                "state", state,
+                "cursor", cursor,
+                "size", size);
+        return get("/owner/?state={state}&cursor={cursor}&size={size}", userId, parameters);
+    }
+
+    private Mono<ResponseEntity<Flux<DataBuffer>>> evictBookedItem(ResponseEntity<Flux<DataBuffer>> response) {
+        if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
+            return Mono.just(response);
+        }
+        return DataBufferUtils.join(response.getBody())
+                .map(buffer -> {
+                    byte[] body = new byte[buffer.readableByteCount()];
+                    buffer.read(body);
+                    DataBufferUtils.release(buffer);
+                    return body;
+                })
+                .defaultIfEmpty(new byte[0])
+                .map(body -> {
+                    responseCache.evict(bookedItemPath(body));
+                    return ResponseEntity.status(response.getStatusCodeValue())
+                            .headers(response.getHeaders())
+                            .body(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(body)));
+                });
+    }
+
+    private String bookedItemPath(byte[] body) {
+        try {
+            JsonNode itemId = objectMapper.readTree(body).path("item").path("id");
+            return itemId.canConvertToLong() ? ITEMS_PATH + "/" + itemId.asLong() : ITEMS_PATH;
+        } catch (IOException e) {
+            return ITEMS_PATH;
+        }
+    }
+
     private boolean isDateValid(NewBookingDto bookingDto) {
         if (bookingDto.getStart().isEqual(bookingDto.getEnd())
                 || bookingDto.getStart().isAfter(bookingDto.getEnd())) {
@@ -1,17 +1,21 @@
 package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.model.NewBookingDto;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.util.List;
 
-@Slf4j
+@Validated
 @Controller
 @RequestMapping(path = "/bookings")
 @RequiredArgsConstructor
@@ -20,44 +24,60 @@ public class BookingController {
 	private final BookingClient bookingClient;
 
 	@PostMapping
-	public ResponseEntity<Object> addBooking(@RequestHeader("X-Sharer-User-Id") long userId,
+	public Mono<ResponseEntity<Flux<DataBuffer>>> addBooking(@RequestHeader("X-Sharer-User-Id") long userId,
 											 @Valid @RequestBody NewBookingDto bookingDto) {
-		log.info("Add new booking for user {} ", userId);
 		return bookingClient.addBooking(userId, bookingDto);
 	}
 
+	@PostMapping("/batch")
+	public Mono<ResponseEntity<Flux<DataBuffer>>> addBookings(@RequestHeader("X-Sharer-User-Id") long userId,
+											  @RequestBody List<NewBookingDto> bookingDtos) {
+		return bookingClient.addBookings(userId, bookingDtos);
+	}
 
 	@PatchMapping("/{bookingId}")
-	public ResponseEntity<Object> update(@PathVariable long bookingId,
+	public Mono<ResponseEntity<Flux<DataBuffer>>> update(@PathVariable long bookingId,
 							 @RequestParam boolean approved,
 							 @RequestHeader("X-Sharer-User-Id") long userId) {
-		log.info("Update booking for user {} with item {}", userId, bookingId);
 		return bookingClient.update(bookingId, userId, approved);
 	}
 
 	@GetMapping("/{bookingId}")
-	public ResponseEntity<Object> getBookingById(@PathVariable long bookingId,
+	public Mono<ResponseEntity<Flux<DataBuffer>>> getBookingById(@PathVariable long bookingId,
 									 @RequestHeader("X-Sharer-User-Id") long userId) {
-		log.info("Get booking for user {} with item {}", userId, bookingId);
 		return bookingClient.getBookingById(bookingId, userId);
 	}
 
 	@GetMapping
-	public ResponseEntity<Object> getAllBookingsByUser(@RequestHeader("X-Sharer-User-Id") long userId,
+	public Mono<ResponseEntity<Flux<DataBuffer>>> getAllBookingsByUser(@RequestHeader("X-Sharer-User-Id") long userId,
 												 @RequestParam(defaultValue = "ALL") String state,
 												 @PositiveOrZero @RequestParam(defaultValue = "0") long from,
 												 @Positive @RequestParam(defaultValue = "10") long size) {
-		log.info("Get all bookings for user {} with state {}", userId, state);
 		return bookingClient.getAllBookingsByUser(userId, state, from, size);
 	}
 
 	@GetMapping("/owner")
-	public ResponseEntity<Object> getAllBookingsAllItemsByOwner(@RequestHeader("X-Sharer-User-Id") long userId,
+	public Mono<ResponseEntity<Flux<DataBuffer>>> getAllBookingsAllItemsByOwner(@RequestHeader("X-Sharer-User-Id") long userId,
 														  @RequestParam(defaultValue = "ALL") String state,
 														  @PositiveOrZero @RequestParam(defaultValue = "0") long from,
 														  @Positive @RequestParam(defaultValue = "10") long size) {
-		log.info("Get all bookings for user {} with state {}", userId, state);
 		return bookingClient.getAllBookingsAllItemsByOwner(userId, state, from, size);
 	}
 
+	@GetMapping(params = "cursor")
+	public Mono<ResponseEntity<Flux<DataBuffer>>> getBookingPageByUser(@RequestHeader("X-Sharer-User-Id") long userId,
+													   @RequestParam(defaultValue = "ALL") String state,
+													   @RequestParam String cursor,
+													   @Positive @RequestParam(defaultValue = "10") long size) {
+		return bookingClient.getBookingPageByUser(userId, state, cursor, size);
+	}
+
+	@GetMapping(path = "/owner", params = "cursor")
+	public Mono<ResponseEntity<Flux<DataBuffer>>> getBookingPageAllItemsByOwner(@RequestHeader("X-Sharer-User-Id") long userId,
+																@RequestParam(defaultValue = "ALL") String state,
+																@RequestParam String cursor,
+																@Positive @RequestParam(defaultValue = "10") long size) {
+		return bookingClient.getBookingPageAllItemsByOwner(userId, state, cursor, size);
+	}
+
 }
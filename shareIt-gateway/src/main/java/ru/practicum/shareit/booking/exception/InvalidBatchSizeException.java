@@ -0,0 +1,9 @@
+package ru.practicum.shareit.booking.exception;
+
+public class InvalidBatchSizeException extends RuntimeException {
+
+    public InvalidBatchSizeException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,181 @@
+package ru.practicum.shareit.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.BodyExtractors;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Component
+public class ResponseCache implements ExchangeFilterFunction, WebClientCustomizer, MeterBinder {
+    public static final String CACHEABLE = ResponseCache.class.getName() + ".CACHEABLE";
+    private static final String CACHE_NAME = "gatewayResponses";
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    private final Cache<Key, CachedResponse> cache;
+    // Generation of the last eviction per path; kept as long as any response cached before it can live.
+    private final Cache<String, Long> evictedAt;
+    private final Map<Key, Mono<CachedResponse>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final long maxBodySize;
+
+    public ResponseCache(@Value("${shareit.response-cache.maximum-weight}") DataSize maximumWeight,
+                         @Value("${shareit.response-cache.max-body-size}") DataSize maxBodySize,
+                         @Value("${shareit.response-cache.ttl}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maximumWeight.toBytes())
+                .weigher((Key key, CachedResponse cached) -> cached.body.length)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.evictedAt = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .build();
+        this.maxBodySize = maxBodySize.toBytes();
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        if (request.method() != HttpMethod.GET || request.attribute(CACHEABLE).isEmpty()) {
+            return next.exchange(request);
+        }
+        Key key = new Key(request.url().getRawPath(), request.url().getRawQuery(),
+                request.headers().getFirst(USER_HEADER));
+        CachedResponse cached = cache.getIfPresent(key);
+        if (cached != null) {
+            if (!isStale(key, cached.generation)) {
+                return Mono.just(cached.toClientResponse());
+            }
+            cache.asMap().remove(key, cached);
+        }
+        Mono<CachedResponse> call = fetch(key, request, next);
+        Mono<CachedResponse> running = inFlight.putIfAbsent(key, call);
+        if (running != null) {
+            coalesced.incrementAndGet();
+            call = running;
+        }
+        return call.map(CachedResponse::toClientResponse);
+    }
+
+    private Mono<CachedResponse> fetch(Key key, ClientRequest request, ExchangeFunction next) {
+        long generation = evictions.get();
+        AtomicReference<Mono<CachedResponse>> call = new AtomicReference<>();
+        call.set(next.exchange(request)
+                .flatMap(response -> DataBufferUtils.join(response.body(BodyExtractors.toDataBuffers()))
+                        .map(buffer -> {
+                            byte[] body = new byte[buffer.readableByteCount()];
+                            buffer.read(body);
+                            DataBufferUtils.release(buffer);
+                            return body;
+                        })
+                        .defaultIfEmpty(new byte[0])
+                        .map(body -> new CachedResponse(response.rawStatusCode(),
+                                HttpHeaders.readOnlyHttpHeaders(response.headers().asHttpHeaders()), body,
+                                response.strategies(), generation)))
+                .doOnNext(fetched -> {
+                    if (fetched.isSuccessful() && fetched.body.length <= maxBodySize) {
+                        cache.put(key, fetched);
+                        if (isStale(key, generation)) {
+                            cache.asMap().remove(key, fetched);
+                        }
+                    }
+                    inFlight.remove(key, call.get());
+                })
+                .doFinally(signal -> inFlight.remove(key, call.get()))
+                .cache());
+        return call.get();
+    }
+
+    public void evict(String... paths) {
+        long generation = evictions.incrementAndGet();
+        for (String path : paths) {
+            evictedAt.asMap().merge(path, generation, Math::max);
+        }
+        inFlight.keySet().removeIf(key -> isStale(key, generation - 1));
+    }
+
+    private boolean isStale(Key key, long generation) {
+        String path = key.getPath();
+        for (int end = path.indexOf('/', 1); end > 0; end = path.indexOf('/', end + 1)) {
+            if (isEvictedAfter(path.substring(0, end), generation)) {
+                return true;
+            }
+        }
+        return isEvictedAfter(path, generation);
+    }
+
+    private boolean isEvictedAfter(String path, long generation) {
+        Long evicted = evictedAt.getIfPresent(path);
+        return evicted != null && evicted > generation;
+    }
+
+    @Override
+    public void customize(WebClient.Builder webClientBuilder) {
+        webClientBuilder.filter(this);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+        FunctionCounter.builder("cache.coalesced", coalesced, AtomicLong::get)
+                .tag("cache", CACHE_NAME)
+                .description("Requests that shared an in-flight upstream call instead of making their own")
+                .register(registry);
+    }
+
+    @Data
+    private static class Key {
+        private final String path;
+        private final String query;
+        private final String userId;
+    }
+
+    @RequiredArgsConstructor
+    private static class CachedResponse {
+        private final int status;
+        private final HttpHeaders headers;
+        private final byte[] body;
+        private final ExchangeStrategies strategies;
+        private final long generation;
+
+        boolean isSuccessful() {
+            return status >= 200 && status < 300;
+        }
+
+        ClientResponse toClientResponse() {
+            DataBuffer buffer = DefaultDataBufferFactory.sharedInstance.wrap(body);
+            return ClientResponse.create(status, strategies)
+                    .headers(responseHeaders -> responseHeaders.addAll(headers))
+                    .body(Flux.just(buffer))
+                    .build();
+        }
+    }
+}
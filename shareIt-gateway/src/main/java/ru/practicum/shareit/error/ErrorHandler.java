@@ -2,13 +2,16 @@ package ru.practicum.shareit.error;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
-import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import ru.practicum.shareit.booking.exception.InvalidBatchSizeException;
 import ru.practicum.shareit.booking.exception.InvalidDateExeption;
 import ru.practicum.shareit.booking.exception.InvalidStateException;
 
+import javax.validation.ConstraintViolationException;
+
 @RestControllerAdvice
 @Slf4j
 public class ErrorHandler {
@@ -22,7 +25,7 @@ public class ErrorHandler {
 
     @ExceptionHandler
     @ResponseStatus(HttpStatus.BAD_REQUEST)
-    public ErrorResponse handlerMethodArgumentNotValidException(final MethodArgumentNotValidException exception) {
+    public ErrorResponse handlerWebExchangeBindException(final WebExchangeBindException exception) {
         log.warn("{}", exception.getMessage());
         return new ErrorResponse(exception.getMessage());
     }
@@ -40,4 +43,18 @@ public class ErrorHandler {
         log.warn("{}", exception.getMessage());
         return new ErrorResponse(exception.getMessage());
     }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handlerConstraintViolationException(final ConstraintViolationException exception) {
+        log.warn("{}", exception.getMessage());
+        return new ErrorResponse(exception.getMessage());
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleInvalidBatchSizeException(final InvalidBatchSizeException exception) {
+        log.warn("{}", exception.getMessage());
+        return new ErrorResponse(exception.getMessage());
+    }
 }
\ No newline at end of file
@@ -2,54 +2,91 @@ package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.*;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.comment.CommentDto;
+import ru.practicum.shareit.booking.exception.InvalidDateExeption;
+import ru.practicum.shareit.cache.ResponseCache;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.item.dto.ItemDto;
 
-import java.util.List;
+import java.time.LocalDateTime;
+import java.util.Map;
 
 @Component
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
+    private static final String SEARCH_PATH = API_PREFIX + "/search";
+    private static final String REQUESTS_PATH = "/requests";
+
+    private final ResponseCache responseCache;
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(builder.uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                .build()
-        );
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                      ResponseCache responseCache) {
+        super(builder.baseUrl(serverUrl + API_PREFIX).build());
+        this.responseCache = responseCache;
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> addNewItem(long userId, ItemDto itemDto) {
+        return post("/", userId, itemDto)
+                .doOnNext(response -> {
+                    responseCache.evict(SEARCH_PATH);
+                    if (itemDto.getRequestId() != null) {
+                        responseCache.evict(REQUESTS_PATH + "/" + itemDto.getRequestId());
+                    }
+                });
     }
 
-    public ResponseEntity<Object> addNewItem(long userId, ItemDto itemDto) {
-        return post("/", userId, itemDto);
+    public Mono<ResponseEntity<Flux<DataBuffer>>> updateItem(long userId, long itemId, ItemDto itemDto) {
+        return patch("/" + itemId, userId, itemDto)
+                .doOnNext(response -> responseCache.evict(API_PREFIX + "/" + itemId, SEARCH_PATH, REQUESTS_PATH));
     }
 
-    public ResponseEntity<Object> updateItem(long userId, long itemId, ItemDto itemDto) {
-        return patch("/" + itemId, userId, itemDto);
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getItem(long userId, long itemId) {
+        return cachedGet("/" + itemId, userId, null);
     }
 
-    public ResponseEntity<Object> getItem(long userId, long itemId) {
-        return get("/" + itemId, userId);
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAvailability(long userId, long itemId, LocalDateTime from,
+                                                                  LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new InvalidDateExeption("Invalid date");
+        }
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to);
+        return cachedGet("/" + itemId + "/availability?from={from}&to={to}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getItemsByUser(long userId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getItemsByUser(long userId) {
         return get("/", userId);
     }
 
-    public ResponseEntity<Object> searchItemsByKeyword(String text) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> searchItemsByKeyword(String text, long from, long size) {
+        if (text == null || text.isBlank()) {
+            return localResponse(MediaType.APPLICATION_JSON, "[]");
+        }
+        Map<String, Object> parameters = Map.of(
+                "text", text,
+                "from", from,
+                "size", size);
+        return cachedGet("/search?text={text}&from={from}&size={size}", null, parameters);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> streamItemsByKeyword(String text) {
         if (text == null || text.isBlank()) {
-            return ResponseEntity.ok(List.of());
+            return localResponse(MediaType.APPLICATION_NDJSON, "");
         }
-        return get("/search?text=" + text);
+        return stream("/search/stream?text={text}", MediaType.APPLICATION_NDJSON, Map.of("text", text));
     }
 
-    public ResponseEntity<Object> addComment(long userId, long itemId, CommentDto commentDto) {
-        return post("/" + itemId + "/comment", userId, commentDto);
+    public Mono<ResponseEntity<Flux<DataBuffer>>> addComment(long userId, long itemId, CommentDto commentDto) {
+        return post("/" + itemId + "/comment", userId, commentDto)
+                .doOnNext(response -> responseCache.evict(API_PREFIX + "/" + itemId));
     }
 
 
@@ -1,58 +1,79 @@
 package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.comment.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+import java.time.LocalDateTime;
 
-@Slf4j
+@Validated
 @Controller
 @RequestMapping(path = "/items")
 @RequiredArgsConstructor
 public class ItemController {
+    private static final long MAX_PAGE_SIZE = 100;
+
     private final ItemClient itemClient;
 
     @GetMapping
-    public ResponseEntity<Object> getByUser(@RequestHeader("X-Sharer-User-Id") long userId) {
-        log.info("Get items for user {}", userId);
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getByUser(@RequestHeader("X-Sharer-User-Id") long userId) {
         return itemClient.getItemsByUser(userId);
     }
 
     @PostMapping
-    public ResponseEntity<Object> add(@RequestHeader("X-Sharer-User-Id") long userId,
+    public Mono<ResponseEntity<Flux<DataBuffer>>> add(@RequestHeader("X-Sharer-User-Id") long userId,
                        @Valid @RequestBody ItemDto item) {
-        log.info("Add item for user {}", userId);
         return itemClient.addNewItem(userId, item);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getById(@RequestHeader("X-Sharer-User-Id") long userId,
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getById(@RequestHeader("X-Sharer-User-Id") long userId,
                            @PathVariable("id") long id) {
-        log.info("Get item by id {}", id);
         return itemClient.getItem(userId, id);
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<Object> edit(@RequestHeader("X-Sharer-User-Id") long userId,
+    public Mono<ResponseEntity<Flux<DataBuffer>>> edit(@RequestHeader("X-Sharer-User-Id") long userId,
                         @PathVariable("id") long id,
                         @RequestBody ItemDto item) {
-        log.info("Edit item by id {}", id);
         return itemClient.updateItem(userId, id, item);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> searchItemsByKeyword(@RequestParam("text") String keyword) {
-        log.info("Search items by keyword {}", keyword);
-        return itemClient.searchItemsByKeyword(keyword);
+    public Mono<ResponseEntity<Flux<DataBuffer>>> searchItemsByKeyword(@RequestParam("text") String keyword,
+                                                       @PositiveOrZero @RequestParam(defaultValue = "0") long from,
+                                                       @Positive @Max(MAX_PAGE_SIZE) @RequestParam(defaultValue = "10") long size) {
+        return itemClient.searchItemsByKeyword(keyword, from, size);
+    }
+
+    @GetMapping(value = "/search/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Mono<ResponseEntity<Flux<DataBuffer>>> streamItemsByKeyword(@RequestParam("text") String keyword) {
+        return itemClient.streamItemsByKeyword(keyword);
+    }
+
+    @GetMapping("/{id}/availability")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAvailability(@RequestHeader("X-Sharer-User-Id") long userId,
+                                   @PathVariable("id") long id,
+                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return itemClient.getAvailability(userId, id, from, to);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> addComment(@RequestHeader("X-Sharer-User-Id") long userId,
+    public Mono<ResponseEntity<Flux<DataBuffer>>> addComment(@RequestHeader("X-Sharer-User-Id") long userId,
                                  @PathVariable long itemId,
                                  @Valid @RequestBody CommentDto commentDto) {
         return itemClient.addComment(userId, itemId, commentDto);
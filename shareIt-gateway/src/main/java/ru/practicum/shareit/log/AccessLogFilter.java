@@ -0,0 +1,53 @@
+package ru.practicum.shareit.log;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j(topic = "shareit.access")
+@Component
+public class AccessLogFilter implements WebFilter {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    private final int sampleRate;
+
+    public AccessLogFilter(@Value("${shareit.access-log.sample-rate}") int sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> log(exchange, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+    }
+
+    private void log(ServerWebExchange exchange, long durationMillis) {
+        HttpStatus status = exchange.getResponse().getStatusCode();
+        int code = status == null ? HttpStatus.OK.value() : status.value();
+        if (!log.isInfoEnabled() || code < 400 && !sampled()) {
+            return;
+        }
+        ServerHttpRequest request = exchange.getRequest();
+        PathPattern pattern = exchange.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        log.info("method={} uri={} endpoint=\"{}\" status={} duration_ms={} user_id={}",
+                request.getMethodValue(), request.getPath().value(),
+                pattern == null ? "none" : request.getMethodValue() + " " + pattern.getPatternString(),
+                code, durationMillis, request.getHeaders().getFirst(USER_HEADER));
+    }
+
+    private boolean sampled() {
+        return sampleRate > 0 && ThreadLocalRandom.current().nextInt(sampleRate) == 0;
+    }
+}
@@ -2,46 +2,63 @@ package ru.practicum.shareit.user;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.*;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.cache.ResponseCache;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import javax.validation.Valid;
+import java.util.Map;
 
 @Component
 public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
+    private final ResponseCache responseCache;
+
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(builder.uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                .build()
-        );
+    public UserClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                      ResponseCache responseCache) {
+        super(builder.baseUrl(serverUrl + API_PREFIX).build());
+        this.responseCache = responseCache;
     }
 
-    public ResponseEntity<Object> save(@Valid UserDto userDto) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> save(@Valid UserDto userDto) {
         return post("", userDto);
     }
 
-    public ResponseEntity<Object> update(long userId, UserDto userDto) {
-        return patch("/" + userId, userDto);
+    public Mono<ResponseEntity<Flux<DataBuffer>>> update(long userId, UserDto userDto) {
+        return patch("/" + userId, userDto)
+                .doOnNext(response -> responseCache.evict(API_PREFIX + "/" + userId));
     }
 
-    public ResponseEntity<Object> getAll() {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAll() {
         return get("");
     }
 
-    public ResponseEntity<Object> get(long userId) {
-        return get("/" + userId);
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getPage(String cursor, long size) {
+        Map<String, Object> parameters = Map.of(
+                "cursor", cursor,
+                "size", size);
+        return get("?cursor={cursor}&size={size}", null, parameters);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> streamAll() {
+        return stream("/stream", MediaType.APPLICATION_NDJSON, Map.of());
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> get(long userId) {
+        return cachedGet("/" + userId, null, null);
     }
 
-    public ResponseEntity<Object> delete(long userId) {
-        return delete("/" + userId);
+    public Mono<ResponseEntity<Flux<DataBuffer>>> delete(long userId) {
+        return delete("/" + userId)
+                .doOnNext(response -> responseCache.evict(API_PREFIX + "/" + userId, "/items", "/requests"));
     }
 
 
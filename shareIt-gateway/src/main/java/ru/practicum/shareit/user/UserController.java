@@ -1,49 +1,63 @@
 package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Positive;
 
-@Slf4j
+@Validated
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/users")
 public class UserController {
+    private static final long MAX_PAGE_SIZE = 100;
+
     private final UserClient userClient;
 
     @GetMapping
-    public ResponseEntity<Object> getAll() {
-        log.info("Getting all users: {}", userClient.getAll().toString());
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAll() {
         return userClient.getAll();
     }
 
+    @GetMapping(params = "cursor")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getPage(@RequestParam String cursor,
+                                                          @Positive @Max(MAX_PAGE_SIZE) @RequestParam(defaultValue = "10") long size) {
+        return userClient.getPage(cursor, size);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Mono<ResponseEntity<Flux<DataBuffer>>> streamAll() {
+        return userClient.streamAll();
+    }
+
     @PostMapping
-    public ResponseEntity<Object> save(@Valid @RequestBody UserDto user) {
-        log.info("Saving user {}", user);
+    public Mono<ResponseEntity<Flux<DataBuffer>>> save(@Valid @RequestBody UserDto user) {
         return userClient.save(user);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Object> get(@PathVariable long id) {
-        log.info("Getting user with id {}", id);
+    public Mono<ResponseEntity<Flux<DataBuffer>>> get(@PathVariable long id) {
         return userClient.get(id);
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<Object> update(@PathVariable long id,
+    public Mono<ResponseEntity<Flux<DataBuffer>>> update(@PathVariable long id,
                           @RequestBody UserDto user) {
-        log.info("Updating user with id {} to {}", id, user);
         return userClient.update(id, user);
     }
 
     @DeleteMapping("/{id}")
-    public void delete(@PathVariable long id) {
-        log.info("Deleting user with id {}", id);
-        userClient.delete(id);
+    public Mono<ResponseEntity<Flux<DataBuffer>>> delete(@PathVariable long id) {
+        return userClient.delete(id);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseCacheCoalescingTest {
+    private final ResponseCache responseCache = new ResponseCache(DataSize.ofKilobytes(64),
+            DataSize.ofBytes(16), Duration.ofMinutes(1));
+    private final ClientRequest request = ClientRequest.create(HttpMethod.GET, URI.create("http://server/users/1"))
+            .attribute(ResponseCache.CACHEABLE, true)
+            .build();
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private final Sinks.One<ClientResponse> pending = Sinks.one();
+    private final ExchangeFunction server = clientRequest -> Mono.defer(() -> upstreamCalls.incrementAndGet() == 1
+            ? Mono.just(ClientResponse.create(HttpStatus.NOT_FOUND).build())
+            : pending.asMono());
+
+    @Test
+    void finishedCallDoesNotUnregisterNewerCallForSameKey() {
+        List<Mono<ClientResponse>> followUps = new CopyOnWriteArrayList<>();
+
+        ClientResponse first = responseCache.filter(request, server)
+                .doOnNext(response -> followUps.add(responseCache.filter(request, server)))
+                .block();
+        followUps.add(responseCache.filter(request, server));
+        pending.tryEmitValue(ClientResponse.create(HttpStatus.OK).body("{}").build());
+
+        assertThat(first.rawStatusCode()).isEqualTo(404);
+        assertThat(followUps).allSatisfy(followUp -> assertThat(followUp.block().rawStatusCode()).isEqualTo(200));
+        assertThat(upstreamCalls).hasValue(2);
+    }
+}
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseCacheEvictionTest {
+    private final ResponseCache responseCache = new ResponseCache(DataSize.ofKilobytes(64),
+            DataSize.ofBytes(16), Duration.ofMinutes(1));
+    private final ClientRequest request = cacheableGet("/users/1");
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private final ExchangeFunction server = clientRequest -> Mono.fromSupplier(() -> {
+        upstreamCalls.incrementAndGet();
+        return ClientResponse.create(HttpStatus.OK).body("{}").build();
+    });
+
+    @Test
+    void responseFetchedAcrossEvictionIsNotCached() {
+        Sinks.One<ClientResponse> pending = Sinks.one();
+        ExchangeFunction slowServer = clientRequest -> Mono.defer(() -> {
+            upstreamCalls.incrementAndGet();
+            return pending.asMono();
+        });
+        Mono<ClientResponse> beforeWrite = responseCache.filter(request, slowServer).cache();
+        beforeWrite.subscribe();
+
+        responseCache.evict("/users/1");
+        pending.tryEmitValue(ClientResponse.create(HttpStatus.OK).body("{}").build());
+
+        assertThat(beforeWrite.block().rawStatusCode()).isEqualTo(200);
+        assertThat(responseCache.filter(request, server).block().rawStatusCode()).isEqualTo(200);
+        assertThat(upstreamCalls).hasValue(2);
+    }
+
+    @Test
+    void bodyOverSizeLimitIsNotCached() {
+        ExchangeFunction largeBody = clientRequest -> Mono.fromSupplier(() -> ClientResponse.create(HttpStatus.OK)
+                .body("{\"calls\":" + upstreamCalls.incrementAndGet() + ",\"padding\":\"...\"}")
+                .build());
+
+        responseCache.filter(request, largeBody).block();
+        responseCache.filter(request, largeBody).block();
+
+        assertThat(upstreamCalls).hasValue(2);
+    }
+
+    @Test
+    void evictionOnlyDropsResponsesUnderEvictedPath() {
+        ClientRequest otherUser = cacheableGet("/users/2");
+        responseCache.filter(request, server).block();
+        responseCache.filter(otherUser, server).block();
+
+        responseCache.evict("/users/2");
+        responseCache.filter(request, server).block();
+        responseCache.filter(otherUser, server).block();
+        assertThat(upstreamCalls).hasValue(3);
+
+        responseCache.evict("/users");
+        responseCache.filter(request, server).block();
+        responseCache.filter(otherUser, server).block();
+        assertThat(upstreamCalls).hasValue(5);
+    }
+
+    private static ClientRequest cacheableGet(String path) {
+        return ClientRequest.create(HttpMethod.GET, URI.create("http://server" + path))
+                .attribute(ResponseCache.CACHEABLE, true)
+                .build();
+    }
+}
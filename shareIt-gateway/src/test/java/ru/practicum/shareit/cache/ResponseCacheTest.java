@@ -0,0 +1,165 @@
+package ru.practicum.shareit.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.handler.codec.http.HttpMethod;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.HttpHeaders.CONTENT_TYPE;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class ResponseCacheTest {
+    private static final Map<String, AtomicInteger> serverCalls = new ConcurrentHashMap<>();
+    private static final DisposableServer server = HttpServer.create()
+            .port(0)
+            .route(routes -> routes
+                    .get("/items/{id}", (request, response) -> response
+                            .header(CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .sendString(Mono.just("{\"id\":" + request.param("id") + ",\"version\":"
+                                    + serverCalls.computeIfAbsent(request.path(), path -> new AtomicInteger())
+                                    .incrementAndGet() + "}")))
+                    .get("/items/{id}/availability", (request, response) -> response
+                            .header(CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .sendString(Mono.just("{\"version\":"
+                                    + serverCalls.computeIfAbsent(request.path(), path -> new AtomicInteger())
+                                    .incrementAndGet() + "}")))
+                    .route(request -> request.method() == HttpMethod.PATCH && request.uri().startsWith("/bookings/"),
+                            (request, response) -> response
+                                    .header(CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                    .sendString(Mono.just("{\"id\":5,\"item\":{\"id\":3}}")))
+                    .route(request -> request.method() == HttpMethod.PATCH, (request, response) -> response
+                            .header(CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .sendString(request.receive().aggregate().asString()))
+                    .get("/requests/{id}", (request, response) -> {
+                        int version = serverCalls.computeIfAbsent(request.path(), path -> new AtomicInteger())
+                                .incrementAndGet();
+                        return response.header(CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                .sendString(Mono.just("{\"version\":" + version + "}")
+                                        .delayElement(Duration.ofMillis(300)));
+                    })
+                    .get("/users/{id}", (request, response) -> {
+                        serverCalls.computeIfAbsent(request.path(), path -> new AtomicInteger()).incrementAndGet();
+                        return response.status(404).send();
+                    }))
+            .bindNow();
+
+    private final WebTestClient webTestClient;
+    private final MeterRegistry meterRegistry;
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + server.port());
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.disposeNow();
+    }
+
+    @Test
+    void repeatedGetIsServedFromCachePerUser() {
+        getItem(1, 7).json("{\"id\":1,\"version\":1}");
+        getItem(1, 7).json("{\"id\":1,\"version\":1}");
+        getItem(1, 8).json("{\"id\":1,\"version\":2}");
+
+        assertThat(serverCalls.get("items/1")).hasValue(2);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "gatewayResponses").tag("result", "hit")
+                .functionCounter().count()).isPositive();
+    }
+
+    @Test
+    void updateEvictsItemForAllUsers() {
+        getItem(2, 7).json("{\"id\":2,\"version\":1}");
+
+        webTestClient.patch().uri("/items/2")
+                .header("X-Sharer-User-Id", "7")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\":\"drill\"}")
+                .exchange()
+                .expectStatus().isOk();
+
+        getItem(2, 7).json("{\"id\":2,\"version\":2}");
+    }
+
+    @Test
+    void bookingApprovalEvictsOnlyTheBookedItem() {
+        String uri = "/items/3/availability?from=2024-01-01T00:00:00&to=2024-02-01T00:00:00";
+        for (int i = 0; i < 2; i++) {
+            webTestClient.get().uri(uri).header("X-Sharer-User-Id", "7").exchange()
+                    .expectStatus().isOk()
+                    .expectBody().json("{\"version\":1}");
+        }
+        getItem(4, 7).json("{\"id\":4,\"version\":1}");
+
+        webTestClient.patch().uri("/bookings/5?approved=true")
+                .header("X-Sharer-User-Id", "7")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().json("{\"id\":5,\"item\":{\"id\":3}}");
+
+        getItem(4, 7).json("{\"id\":4,\"version\":1}");
+
+        webTestClient.get().uri(uri).header("X-Sharer-User-Id", "7").exchange()
+                .expectStatus().isOk()
+                .expectBody().json("{\"version\":2}");
+        assertThat(serverCalls.get("items/3/availability")).hasValue(2);
+    }
+
+    @Test
+    void concurrentMissesShareOneServerCall() {
+        WebClient gateway = WebClient.create("http://localhost:" + port);
+
+        List<String> bodies = Flux.range(0, 20)
+                .flatMap(i -> gateway.get().uri("/requests/1")
+                        .header("X-Sharer-User-Id", "7")
+                        .retrieve()
+                        .bodyToMono(String.class))
+                .collectList()
+                .block();
+
+        assertThat(bodies).hasSize(20).containsOnly("{\"version\":1}");
+        assertThat(serverCalls.get("requests/1")).hasValue(1);
+        assertThat(meterRegistry.get("cache.coalesced").tag("cache", "gatewayResponses")
+                .functionCounter().count()).isPositive();
+    }
+
+    @Test
+    void errorsAreNotCached() {
+        for (int i = 0; i < 2; i++) {
+            webTestClient.get().uri("/users/404").exchange().expectStatus().isNotFound();
+        }
+
+        assertThat(serverCalls.get("users/404")).hasValue(2);
+    }
+
+    private WebTestClient.BodyContentSpec getItem(long itemId, long userId) {
+        return webTestClient.get().uri("/items/" + itemId)
+                .header("X-Sharer-User-Id", String.valueOf(userId))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody();
+    }
+}
@@ -0,0 +1,158 @@
+package ru.practicum.shareit.client;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.http.HttpHeaders.CONTENT_LENGTH;
+import static org.springframework.http.HttpHeaders.CONTENT_TYPE;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class BaseClientTest {
+    private static final byte[] ITEM = "{\"name\" : \"Дрель\",\"price\":1.50, \"id\":1}"
+            .getBytes(StandardCharsets.UTF_8);
+    private static final DisposableServer server = HttpServer.create()
+            .port(0)
+            .route(routes -> routes
+                    .get("/bookings", (request, response) -> response
+                            .header(CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .header("X-Next-Cursor", "next")
+                            .sendString(Mono.just("[{\"bookerId\":"
+                                    + request.requestHeaders().get("X-Sharer-User-Id") + "}]")))
+                    .get("/items/{id}", (request, response) -> response
+                            .header(CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .header(CONTENT_LENGTH, String.valueOf(ITEM.length))
+                            .sendByteArray(Mono.just(ITEM)))
+                    .get("/users/{id}", (request, response) -> response.status(404)
+                            .header(CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .sendString(Mono.just("{\"error\":\"User " + request.param("id") + " not found\"}")))
+                    .post("/bookings/batch", (request, response) -> response
+                            .header(CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .sendString(Mono.just("[{\"index\":0,\"error\":\"Booking start and end are required\"}]")))
+                    .get("/items/search/stream", (request, response) -> response
+                            .header(CONTENT_TYPE, MediaType.APPLICATION_NDJSON_VALUE)
+                            .sendString(Mono.just("{\"id\":1}\n{\"id\":2}\n"))))
+            .bindNow();
+
+    private final WebTestClient webTestClient;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + server.port());
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.disposeNow();
+    }
+
+    @Test
+    void relaysServerResponseWithHeaders() {
+        webTestClient.get().uri("/bookings?cursor=abc")
+                .header("X-Sharer-User-Id", "7")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("X-Next-Cursor", "next")
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody().json("[{\"bookerId\":7}]");
+    }
+
+    @Test
+    void relaysResponseBytesVerbatim() {
+        webTestClient.get().uri("/items/1")
+                .header("X-Sharer-User-Id", "7")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentLength(ITEM.length)
+                .expectBody(byte[].class).isEqualTo(ITEM);
+    }
+
+    @Test
+    void relaysServerErrorsAsIs() {
+        webTestClient.get().uri("/users/42")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody().json("{\"error\":\"User 42 not found\"}");
+    }
+
+    @Test
+    void streamsNdjsonThrough() {
+        webTestClient.get().uri("/items/search/stream?text=drill")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class).isEqualTo("{\"id\":1}\n{\"id\":2}\n");
+    }
+
+    @Test
+    void answersBlankSearchWithoutCallingServer() {
+        webTestClient.get().uri("/items/search?text= ")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().json("[]");
+    }
+
+    @Test
+    void rejectsInvalidRequestBeforeCallingServer() {
+        webTestClient.post().uri("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"email\":\"not-an-email\"}")
+                .exchange()
+                .expectStatus().isBadRequest();
+        webTestClient.get().uri("/bookings?state=UNKNOWN")
+                .header("X-Sharer-User-Id", "7")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().json("{\"error\":\"Unknown state: UNSUPPORTED_STATUS\"}");
+        webTestClient.get().uri("/items/search?text=drill&size=101")
+                .exchange()
+                .expectStatus().isBadRequest();
+        webTestClient.get().uri("/users?cursor=&size=101")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void rejectsOversizedBatchBeforeCallingServer() {
+        Map<String, Object> booking = Map.of("itemId", 1,
+                "start", LocalDateTime.now().plusDays(1).toString(),
+                "end", LocalDateTime.now().plusDays(2).toString());
+        for (List<Map<String, Object>> batch : List.of(Collections.nCopies(101, booking),
+                List.<Map<String, Object>>of())) {
+            webTestClient.post().uri("/bookings/batch")
+                    .header("X-Sharer-User-Id", "7")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(batch)
+                    .exchange()
+                    .expectStatus().isBadRequest();
+        }
+    }
+
+    @Test
+    void leavesEntryErrorsOfBatchToServer() {
+        webTestClient.post().uri("/bookings/batch")
+                .header("X-Sharer-User-Id", "7")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(List.of(Map.of("itemId", 1)))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().json("[{\"index\":0,\"error\":\"Booking start and end are required\"}]");
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class HttpClientConfigTest {
+    private static final DisposableServer server = HttpServer.create()
+            .port(0)
+            .route(routes -> routes
+                    .get("/users/{id}", (request, response) -> response.status(404).send())
+                    .get("/requests/{id}", (request, response) -> response.status(404).send()))
+            .bindNow();
+
+    private final WebTestClient webTestClient;
+    private final MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + server.port());
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.disposeNow();
+    }
+
+    @Test
+    void allClientsShareOneKeepAlivePool() {
+        webTestClient.get().uri("/users/1").exchange().expectStatus().isNotFound();
+        webTestClient.get().uri("/requests/1").header("X-Sharer-User-Id", "7").exchange()
+                .expectStatus().isNotFound();
+
+        List<Gauge> pools = poolGauges("reactor.netty.connection.provider.max.connections");
+        assertThat(pools).hasSize(1);
+        assertThat(pools.get(0).value()).isEqualTo(500);
+        assertThat(poolGauges("reactor.netty.connection.provider.total.connections"))
+                .singleElement().satisfies(gauge -> assertThat(gauge.value()).isEqualTo(1));
+    }
+
+    private List<Gauge> poolGauges(String name) {
+        return meterRegistry.get(name).tag("name", HttpClientConfig.POOL_NAME).gauges().stream()
+                .filter(gauge -> gauge.getId().getTag("remote.address").endsWith(":" + server.port()))
+                .collect(Collectors.toList());
+    }
+}
@@ -1,45 +1,53 @@
 package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.dto.NewBookingDto;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
 import java.util.List;
 
-@Slf4j
 @Validated
 @RestController
 @RequiredArgsConstructor
 @RequestMapping(path = "/bookings")
 public class BookingController {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final int MAX_BATCH_SIZE = 100;
+
     private final BookingService bookingService;
 
     @PostMapping
     public BookingDto addBooking(@RequestHeader("X-Sharer-User-Id") long userId,
                                  @Valid @RequestBody NewBookingDto bookingDto) {
-        log.info("Add new booking for user {} ", userId);
         return bookingService.addBooking(userId, bookingDto);
     }
 
+    @PostMapping("/batch")
+    public List<BookingBatchResultDto> addBookings(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                   @Size(min = 1, max = MAX_BATCH_SIZE)
+                                                   @RequestBody List<NewBookingDto> bookingDtos) {
+        return bookingService.addBookings(userId, bookingDtos);
+    }
 
     @PatchMapping("/{bookingId}")
     public BookingDto update(@PathVariable long bookingId,
                              @RequestParam boolean approved,
                              @RequestHeader("X-Sharer-User-Id") long userId) {
-        log.info("Update booking for user {} with item {}", userId, bookingId);
         return bookingService.update(bookingId, userId, approved);
     }
 
     @GetMapping("/{bookingId}")
     public BookingDto getBookingById(@PathVariable long bookingId,
                                      @RequestHeader("X-Sharer-User-Id") long userId) {
-        log.info("Get booking for user {} with item {}", userId, bookingId);
         return bookingService.getBookingById(bookingId, userId);
     }
 
@@ -48,7 +56,6 @@ public class BookingController {
                                                  @RequestParam(defaultValue = "ALL") String state,
                                                  @PositiveOrZero @RequestParam(defaultValue = "0") long from,
                                                  @Positive @RequestParam(defaultValue = "10") long size) {
-        log.info("Get all bookings for user {} with state {}", userId, state);
         return bookingService.getAllBookingsByUser(userId, state, from, size);
     }
 
@@ -57,8 +64,30 @@ public class BookingController {
                                                           @RequestParam(defaultValue = "ALL") String state,
                                                           @PositiveOrZero @RequestParam(defaultValue = "0") long from,
                                                           @Positive @RequestParam(defaultValue = "10") long size) {
-        log.info("Get all bookings for user {} with state {}", userId, state);
         return bookingService.getAllBookingsAllItemsByOwner(userId, state, from, size);
     }
 
+    @GetMapping(params = "cursor")
+    public ResponseEntity<List<BookingDto>> getBookingPageByUser(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                                 @RequestParam(defaultValue = "ALL") String state,
+                                                                 @RequestParam String cursor,
+                                                                 @Positive @RequestParam(defaultValue = "10") long size) {
+        return toResponse(bookingService.getBookingPageByUser(userId, state, cursor, size));
+    }
+
+    @GetMapping(path = "/owner", params = "cursor")
+    public ResponseEntity<List<BookingDto>> getBookingPageAllItemsByOwner(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                                          @RequestParam(defaultValue = "ALL") String state,
+                                                                          @RequestParam String cursor,
+                                                                          @Positive @RequestParam(defaultValue = "10") long size) {
+        return toResponse(bookingService.getBookingPageAllItemsByOwner(userId, state, cursor, size));
+    }
+
+    private static ResponseEntity<List<BookingDto>> toResponse(BookingPageDto page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getBookings());
+    }
 }
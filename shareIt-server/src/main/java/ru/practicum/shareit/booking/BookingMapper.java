@@ -1,11 +1,15 @@
 package ru.practicum.shareit.booking;
 
 import lombok.experimental.UtilityClass;
+import ru.practicum.shareit.booking.dto.BookerDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingItemDto;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.booking.dto.ItemShortDto;
 import ru.practicum.shareit.booking.dto.NewBookingDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
 
 @UtilityClass
 public class BookingMapper {
@@ -15,8 +19,19 @@ public class BookingMapper {
         dto.setId(booking.getId());
         dto.setStart(booking.getStart());
         dto.setEnd(booking.getEnd());
-        dto.setItem(booking.getItem());
-        dto.setBooker(booking.getBooker());
+        dto.setItem(new ItemShortDto(booking.getItem().getId(), booking.getItem().getName()));
+        dto.setBooker(new BookerDto(booking.getBooker().getId()));
+        return dto;
+    }
+
+    public static BookingDto toDto(BookingView booking) {
+        BookingDto dto = new BookingDto();
+        dto.setStatus(booking.getStatus());
+        dto.setId(booking.getId());
+        dto.setStart(booking.getStart());
+        dto.setEnd(booking.getEnd());
+        dto.setItem(new ItemShortDto(booking.getItemId(), booking.getItemName()));
+        dto.setBooker(new BookerDto(booking.getBookerId()));
         return dto;
     }
 
@@ -29,13 +44,13 @@ public class BookingMapper {
         return dto;
     }
 
-    public static Booking fromDto(BookingDto dto, Item item) {
+    public static Booking fromDto(BookingDto dto, Item item, User booker) {
         Booking booking = new Booking();
         booking.setStatus(dto.getStatus());
         booking.setStart(dto.getStart());
         booking.setEnd(dto.getEnd());
         booking.setItem(item);
-        booking.setBooker(dto.getBooker());
+        booking.setBooker(booker);
         return booking;
     }
 
@@ -2,55 +2,172 @@ package ru.practicum.shareit.booking;
 
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.dto.IntervalDto;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
+    String BOOKING_VIEW = "SELECT new ru.practicum.shareit.booking.dto.BookingView(" +
+            "b.id, b.start, b.end, b.status, i.id, i.name, b.booker.id) FROM Booking b JOIN b.item i ";
 
-    List<Booking> findAllByBookerIdOrderByStartDesc(long id, Pageable pageable);
+    @Override
+    @EntityGraph(Booking.WITH_ITEM)
+    Optional<Booking> findById(Long id);
 
-    List<Booking> findAllByBookerIdAndStartIsAfterOrderByStartDesc(long bookerId, LocalDateTime start, PageRequest pageRequest);
+    @Query(BOOKING_VIEW + "WHERE b.booker.id = ?1 ORDER BY b.start DESC")
+    List<BookingView> findAllByBookerIdOrderByStartDesc(long id, Pageable pageable);
 
-    List<Booking> findAllByBookerIdAndEndIsBeforeOrderByStartDesc(long bookerId, LocalDateTime start, PageRequest pageRequest);
+    @Query(BOOKING_VIEW + "WHERE b.booker.id = ?1 AND b.start > ?2 ORDER BY b.start DESC")
+    List<BookingView> findAllByBookerIdAndStartIsAfterOrderByStartDesc(long bookerId, LocalDateTime start, PageRequest pageRequest);
 
-    @Query("SELECT b FROM Booking b " +
+    @Query(BOOKING_VIEW + "WHERE b.booker.id = ?1 AND b.end < ?2 ORDER BY b.start DESC")
+    List<BookingView> findAllByBookerIdAndEndIsBeforeOrderByStartDesc(long bookerId, LocalDateTime start, PageRequest pageRequest);
+
+    @Query(BOOKING_VIEW +
             "WHERE b.booker.id = :bookerId " +
             "AND b.start < :end AND b.end > :start " +
             "ORDER BY b.start DESC")
-    List<Booking> findAllByBookerIdAndTimeRangeOrderByStartDesc(@Param("bookerId") long bookerId,
+    List<BookingView> findAllByBookerIdAndTimeRangeOrderByStartDesc(@Param("bookerId") long bookerId,
                                                                 @Param("start") LocalDateTime start,
                                                                 @Param("end") LocalDateTime end,
                                                                 PageRequest pageRequest);
 
-    List<Booking> findAllByBookerIdAndStatusOrderByStartDesc(long id, Status status, Pageable pageable);
+    @Query(BOOKING_VIEW + "WHERE b.booker.id = ?1 AND b.status = ?2 ORDER BY b.start DESC")
+    List<BookingView> findAllByBookerIdAndStatusOrderByStartDesc(long id, Status status, Pageable pageable);
 
-    List<Booking> findAllByItemOwnerIdOrderByStartDesc(long id, PageRequest pageRequest);
+    @Query(BOOKING_VIEW + "WHERE i.owner.id = ?1 ORDER BY b.start DESC")
+    List<BookingView> findAllByItemOwnerIdOrderByStartDesc(long id, PageRequest pageRequest);
 
-    List<Booking> findAllByItemOwnerIdAndStartIsAfterOrderByStartDesc(long bookerId, LocalDateTime start, PageRequest pageRequest);
+    @Query(BOOKING_VIEW + "WHERE i.owner.id = ?1 AND b.start > ?2 ORDER BY b.start DESC")
+    List<BookingView> findAllByItemOwnerIdAndStartIsAfterOrderByStartDesc(long bookerId, LocalDateTime start, PageRequest pageRequest);
 
-    List<Booking> findAllByItemOwnerIdAndEndIsBeforeOrderByStartDesc(long bookerId, LocalDateTime start, PageRequest pageRequest);
+    @Query(BOOKING_VIEW + "WHERE i.owner.id = ?1 AND b.end < ?2 ORDER BY b.start DESC")
+    List<BookingView> findAllByItemOwnerIdAndEndIsBeforeOrderByStartDesc(long bookerId, LocalDateTime start, PageRequest pageRequest);
 
-    @Query("SELECT b FROM Booking b " +
-            "WHERE b.item.owner.id = :bookerId " +
+    @Query(BOOKING_VIEW +
+            "WHERE i.owner.id = :bookerId " +
             "AND b.start < :end AND b.end > :start " +
             "ORDER BY b.start DESC")
-    List<Booking> findAllByOwnerIdAndTimeRangeOrderByStartDesc(@Param("bookerId") long bookerId,
+    List<BookingView> findAllByOwnerIdAndTimeRangeOrderByStartDesc(@Param("bookerId") long bookerId,
                                                                @Param("start") LocalDateTime start,
                                                                @Param("end") LocalDateTime end, PageRequest pageRequest);
 
-    List<Booking> findAllByItemOwnerIdAndStatusOrderByStartDesc(long id, Status status, Pageable pageable);
+    @Query(BOOKING_VIEW + "WHERE i.owner.id = ?1 AND b.status = ?2 ORDER BY b.start DESC")
+    List<BookingView> findAllByItemOwnerIdAndStatusOrderByStartDesc(long id, Status status, Pageable pageable);
 
-    Optional<Booking> findFirstByBookerIdAndItemIdAndStatusIsAndEndIsBeforeOrderByEndDesc(long userId, long itemId, Status status, LocalDateTime  now);
+    @Query("SELECT b FROM Booking b WHERE b.booker.id = ?1 AND b.item.id = ?2 " +
+            "AND b.status = ?3 AND b.end < ?4 ORDER BY b.end DESC")
+    List<Booking> findEndedByBookerIdAndItemId(long userId, long itemId, Status status, LocalDateTime now,
+                                               Pageable pageable);
 
-    Optional<Booking> findFirstByItemIdAndStartIsBeforeAndStatusOrderByStartDesc(long itemId, LocalDateTime start, Status status);
+    default Optional<Booking> findFirstByBookerIdAndItemIdAndStatusIsAndEndIsBeforeOrderByEndDesc(
+            long userId, long itemId, Status status, LocalDateTime now) {
+        return findEndedByBookerIdAndItemId(userId, itemId, status, now, PageRequest.of(0, 1)).stream().findFirst();
+    }
 
-    Optional<Booking> findFirstByItemIdAndStartIsAfterAndStatusOrderByStartAsc(long itemId, LocalDateTime start, Status status);
-}
+    @Query("SELECT b FROM Booking b WHERE b.item.id = ?1 AND b.start < ?2 AND b.status = ?3 " +
+            "ORDER BY b.start DESC")
+    List<Booking> findStartedBeforeByItemId(long itemId, LocalDateTime start, Status status, Pageable pageable);
+
+    default Optional<Booking> findFirstByItemIdAndStartIsBeforeAndStatusOrderByStartDesc(
+            long itemId, LocalDateTime start, Status status) {
+        return findStartedBeforeByItemId(itemId, start, status, PageRequest.of(0, 1)).stream().findFirst();
+    }
+
+    default boolean existsApprovedOverlap(long itemId, LocalDateTime start, LocalDateTime end) {
+        return findFirstByItemIdAndStartIsBeforeAndStatusOrderByStartDesc(itemId, end, Status.APPROVED)
+                .filter(booking -> booking.getEnd().isAfter(start))
+                .isPresent();
+    }
 
+    @Query("SELECT b FROM Booking b " +
+            "WHERE b.item.id IN :itemIds AND b.status = :status AND b.start >= :from AND b.start < :to")
+    List<Booking> findStartingBetweenByItemIdIn(@Param("itemIds") Collection<Long> itemIds,
+                                                @Param("status") Status status,
+                                                @Param("from") LocalDateTime from,
+                                                @Param("to") LocalDateTime to);
+
+    @Query("SELECT b FROM Booking b WHERE b.item.id IN :itemIds AND b.status = :status AND b.start = " +
+            "(SELECT MAX(p.start) FROM Booking p " +
+            "WHERE p.item.id = b.item.id AND p.status = :status AND p.start < :start)")
+    List<Booking> findLastStartedBeforeByItemIdIn(@Param("itemIds") Collection<Long> itemIds,
+                                                  @Param("status") Status status,
+                                                  @Param("start") LocalDateTime start);
+
+    @Query("SELECT b FROM Booking b WHERE b.item.id = ?1 AND b.start > ?2 AND b.status = ?3 " +
+            "ORDER BY b.start ASC")
+    List<Booking> findStartingAfterByItemId(long itemId, LocalDateTime start, Status status, Pageable pageable);
+
+    default Optional<Booking> findFirstByItemIdAndStartIsAfterAndStatusOrderByStartAsc(
+            long itemId, LocalDateTime start, Status status) {
+        return findStartingAfterByItemId(itemId, start, status, PageRequest.of(0, 1)).stream().findFirst();
+    }
+
+    @Query("SELECT new ru.practicum.shareit.item.dto.IntervalDto(b.start, b.end) FROM Booking b " +
+            "WHERE b.item.id = :itemId AND b.status = :status AND b.start < :to AND b.end > :from " +
+            "ORDER BY b.start")
+    List<IntervalDto> findIntervalsByItemId(@Param("itemId") long itemId,
+                                            @Param("status") Status status,
+                                            @Param("from") LocalDateTime from,
+                                            @Param("to") LocalDateTime to);
+
+    @Query("SELECT b FROM Booking b " +
+            "WHERE b.item.id IN :itemIds AND b.status = :status " +
+            "AND b.start = (SELECT MAX(lb.start) FROM Booking lb " +
+            "WHERE lb.item.id = b.item.id AND lb.status = :status AND lb.start < :now)")
+    List<Booking> findLastBookingsByItemIdIn(@Param("itemIds") List<Long> itemIds,
+                                             @Param("now") LocalDateTime now,
+                                             @Param("status") Status status);
+
+    @Query("SELECT b FROM Booking b " +
+            "WHERE b.item.id IN :itemIds AND b.status = :status " +
+            "AND b.start = (SELECT MIN(nb.start) FROM Booking nb " +
+            "WHERE nb.item.id = b.item.id AND nb.status = :status AND nb.start > :now)")
+    List<Booking> findNextBookingsByItemIdIn(@Param("itemIds") List<Long> itemIds,
+                                             @Param("now") LocalDateTime now,
+                                             @Param("status") Status status);
+
+    @Query(BOOKING_VIEW +
+            "WHERE b.booker.id = :userId " +
+            "AND b.start > :startFrom AND b.start < :startTo " +
+            "AND b.end > :endFrom AND b.end < :endTo " +
+            "AND b.status IN :statuses " +
+            "AND (b.start < :cursorStart OR (b.start = :cursorStart AND b.id < :cursorId)) " +
+            "ORDER BY b.start DESC, b.id DESC")
+    List<BookingView> findPageByBookerIdBeforeCursor(@Param("userId") long userId,
+                                                 @Param("startFrom") LocalDateTime startFrom,
+                                                 @Param("startTo") LocalDateTime startTo,
+                                                 @Param("endFrom") LocalDateTime endFrom,
+                                                 @Param("endTo") LocalDateTime endTo,
+                                                 @Param("statuses") List<Status> statuses,
+                                                 @Param("cursorStart") LocalDateTime cursorStart,
+                                                 @Param("cursorId") long cursorId,
+                                                 Pageable pageable);
+
+    @Query(BOOKING_VIEW +
+            "WHERE i.owner.id = :userId " +
+            "AND b.start > :startFrom AND b.start < :startTo " +
+            "AND b.end > :endFrom AND b.end < :endTo " +
+            "AND b.status IN :statuses " +
+            "AND (b.start < :cursorStart OR (b.start = :cursorStart AND b.id < :cursorId)) " +
+            "ORDER BY b.start DESC, b.id DESC")
+    List<BookingView> findPageByOwnerIdBeforeCursor(@Param("userId") long userId,
+                                                @Param("startFrom") LocalDateTime startFrom,
+                                                @Param("startTo") LocalDateTime startTo,
+                                                @Param("endFrom") LocalDateTime endFrom,
+                                                @Param("endTo") LocalDateTime endTo,
+                                                @Param("statuses") List<Status> statuses,
+                                                @Param("cursorStart") LocalDateTime cursorStart,
+                                                @Param("cursorId") long cursorId,
+                                                Pageable pageable);
+}
@@ -1,6 +1,8 @@
 package ru.practicum.shareit.booking;
 
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.dto.NewBookingDto;
 
 import java.util.List;
@@ -15,5 +17,11 @@ public interface BookingService {
 
     List<BookingDto> getAllBookingsAllItemsByOwner(long userId, String state, long from, long size);
 
+    BookingPageDto getBookingPageByUser(long userId, String state, String cursor, long size);
+
+    BookingPageDto getBookingPageAllItemsByOwner(long userId, String state, String cursor, long size);
+
     BookingDto addBooking(long userId, NewBookingDto bookingDto);
+
+    List<BookingBatchResultDto> addBookings(long userId, List<NewBookingDto> bookingDtos);
 }
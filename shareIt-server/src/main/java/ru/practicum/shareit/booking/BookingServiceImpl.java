@@ -1,46 +1,67 @@
 package ru.practicum.shareit.booking;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.booking.dto.NewBookingDto;
 import ru.practicum.shareit.booking.exeption.*;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.cache.AvailabilityCache;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.exception.NotFoundDataException;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
+    private static final LocalDateTime MIN_DATE = LocalDateTime.of(1900, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_DATE = LocalDateTime.of(9999, 12, 31, 0, 0);
+    private static final int MAX_APPROVAL_ATTEMPTS = 3;
+
     private final BookingRepository bookingRepository;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final AvailabilityCache availabilityCache;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
 
     @Override
     public BookingDto addBooking(long userId, NewBookingDto bookingDto) {
         if (userRepository.findById(userId).isPresent()) {
             bookingDto.setBooker(userRepository.findById(userId).get());
-            if (itemRepository.findById(bookingDto.getItemId()).isPresent()) {
-                Item item = itemRepository.findById(bookingDto.getItemId()).get();
-                if (item.getOwner().getId() == userId) {
-                    throw new NotBookingRelationException("User (id = " + userId + ") can't book item (id = "
-                            + item.getId() + ") because he doesn't own it");
-                }
-                if (item.getAvailable()) {
-                    bookingDto.setStatus(Status.WAITING);
-                    return BookingMapper.toDto(bookingRepository.save(BookingMapper.fromDto(bookingDto, item)));
-                } else throw new AccessItemDeniedException("Item not available");
+            Optional<Item> storedItem = itemRepository.findById(bookingDto.getItemId());
+            if (storedItem.isPresent()) {
+                Item item = storedItem.get();
+                checkBookable(item, userId);
+                checkNotOverlapping(item.getId(), bookingDto.getStart(), bookingDto.getEnd());
+                bookingDto.setStatus(Status.WAITING);
+                return BookingMapper.toDto(bookingRepository.save(BookingMapper.fromDto(bookingDto, item)));
             }
             throw new NotFoundDataException("Item with id " + bookingDto.getItemId() + " not found");
         }
@@ -48,8 +69,74 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
+    public List<BookingBatchResultDto> addBookings(long userId, List<NewBookingDto> bookingDtos) {
+        User booker = userRepository.findById(userId)
+                .orElseThrow(() -> new NotFoundDataException("User with id " + userId + " not found"));
+        Set<Long> itemIds = bookingDtos.stream()
+                .map(NewBookingDto::getItemId)
+                .collect(Collectors.toSet());
+        Map<Long, Item> items = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, List<Booking>> approved = findApprovedCandidates(itemIds, bookingDtos);
+
+        List<BookingBatchResultDto> results = new ArrayList<>(bookingDtos.size());
+        List<BookingBatchResultDto> acceptedResults = new ArrayList<>();
+        List<Booking> accepted = new ArrayList<>();
+        for (int i = 0; i < bookingDtos.size(); i++) {
+            NewBookingDto bookingDto = bookingDtos.get(i);
+            BookingBatchResultDto result = BookingBatchResultDto.builder().index(i).build();
+            try {
+                checkDates(bookingDto, now);
+                Item item = items.get(bookingDto.getItemId());
+                if (item == null) {
+                    throw new NotFoundDataException("Item with id " + bookingDto.getItemId() + " not found");
+                }
+                checkBookable(item, userId);
+                checkNotOverlapping(item.getId(), bookingDto.getStart(), bookingDto.getEnd(),
+                        approved.getOrDefault(item.getId(), List.of()));
+                bookingDto.setBooker(booker);
+                bookingDto.setStatus(Status.WAITING);
+                acceptedResults.add(result);
+                accepted.add(BookingMapper.fromDto(bookingDto, item));
+            } catch (InvalidBookingDateException | NotFoundDataException | NotBookingRelationException
+                     | AccessItemDeniedException | BookingOverlapException e) {
+                result.setError(e.getMessage());
+            }
+            results.add(result);
+        }
+        List<Booking> saved = bookingRepository.saveAll(accepted);
+        for (int i = 0; i < saved.size(); i++) {
+            acceptedResults.get(i).setBooking(BookingMapper.toDto(saved.get(i)));
+        }
+        return results;
+    }
+
+    // Each attempt runs in its own transaction, so a retry sees the committed state and fails its checks.
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public BookingDto update(long bookingId, long userId, boolean approved) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return approveOrReject(bookingId, userId, approved);
+        }
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transaction.execute(status -> approveOrReject(bookingId, userId, approved));
+            } catch (OptimisticLockingFailureException e) {
+                meterRegistry.counter("booking.approval.conflicts").increment();
+                if (attempt == MAX_APPROVAL_ATTEMPTS) {
+                    throw e;
+                }
+                meterRegistry.counter("booking.approval.retries").increment();
+            }
+        }
+    }
+
+    private BookingDto approveOrReject(long bookingId, long userId, boolean approved) {
         if (userRepository.findById(userId).isPresent()) {
+            meterRegistry.timer("booking.approval.lock.wait")
+                    .record(() -> itemRepository.findByBookingIdForUpdate(bookingId));
             if (bookingRepository.findById(bookingId).isPresent()) {
                 Booking booking = bookingRepository.findById(bookingId).get();
                 if (booking.getItem().getOwner().getId() != userId) {
@@ -59,7 +146,9 @@ public class BookingServiceImpl implements BookingService {
                 if (!booking.getStatus().equals(Status.WAITING)) {
                     throw new NoWaitingStatusException("Can't approve/reject not waiting booking.");
                 }
+                availabilityCache.evict(booking.getItem().getId());
                 if (approved) {
+                    checkNotOverlapping(booking.getItem().getId(), booking.getStart(), booking.getEnd());
                     booking.setStatus(Status.APPROVED);
                     return BookingMapper.toDto(bookingRepository.save(booking));
                 } else {
@@ -93,7 +182,7 @@ public class BookingServiceImpl implements BookingService {
     @Transactional(readOnly = true)
     public List<BookingDto> getAllBookingsByUser(long userId, String state, long from, long size) {
         if (userRepository.findById(userId).isPresent()) {
-            List<Booking> bookings;
+            List<BookingView> bookings;
             PageRequest pageRequest = PageRequest.of((int) (from / size), (int) size);
             switch (state) {
                 case "ALL" :
@@ -128,7 +217,7 @@ public class BookingServiceImpl implements BookingService {
     @Transactional(readOnly = true)
     public List<BookingDto> getAllBookingsAllItemsByOwner(long userId, String state, long from, long size) {
         if (userRepository.findById(userId).isPresent()) {
-            List<Booking> bookings;
+            List<BookingView> bookings;
             PageRequest pageRequest = PageRequest.of((int) (from / size), (int) size);
             switch (state) {
                 case "ALL" :
@@ -158,4 +247,125 @@ public class BookingServiceImpl implements BookingService {
         }
         throw new NotFoundDataException("User with id " + userId + " not found");
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BookingPageDto getBookingPageByUser(long userId, String state, String cursor, long size) {
+        if (userRepository.findById(userId).isPresent()) {
+            return findBookingPage(false, userId, state, cursor, size);
+        }
+        throw new NotFoundDataException("User with id " + userId + " not found");
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BookingPageDto getBookingPageAllItemsByOwner(long userId, String state, String cursor, long size) {
+        if (userRepository.findById(userId).isPresent()) {
+            return findBookingPage(true, userId, state, cursor, size);
+        }
+        throw new NotFoundDataException("User with id " + userId + " not found");
+    }
+
+    private BookingPageDto findBookingPage(boolean byOwner, long userId, String state, String cursor, long size) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime startFrom = MIN_DATE;
+        LocalDateTime startTo = MAX_DATE;
+        LocalDateTime endFrom = MIN_DATE;
+        LocalDateTime endTo = MAX_DATE;
+        List<Status> statuses = List.of(Status.values());
+        switch (state) {
+            case "ALL" :
+                break;
+            case "CURRENT" :
+                startTo = now;
+                endFrom = now;
+                break;
+            case "PAST" :
+                endTo = now;
+                break;
+            case "FUTURE" :
+                startFrom = now;
+                break;
+            case "WAITING" :
+                statuses = List.of(Status.WAITING);
+                break;
+            case "REJECTED" :
+                statuses = List.of(Status.REJECTED);
+                break;
+            default:
+                return new BookingPageDto(Collections.emptyList(), null);
+        }
+        BookingCursor position = cursor.isEmpty()
+                ? new BookingCursor(MAX_DATE, Long.MAX_VALUE)
+                : BookingCursor.decode(cursor);
+        PageRequest pageRequest = PageRequest.of(0, (int) size);
+        List<BookingView> bookings = byOwner
+                ? bookingRepository.findPageByOwnerIdBeforeCursor(userId, startFrom, startTo, endFrom, endTo,
+                        statuses, position.getStart(), position.getId(), pageRequest)
+                : bookingRepository.findPageByBookerIdBeforeCursor(userId, startFrom, startTo, endFrom, endTo,
+                        statuses, position.getStart(), position.getId(), pageRequest);
+        String nextCursor = bookings.size() == size
+                ? BookingCursor.of(bookings.get(bookings.size() - 1)).encode()
+                : null;
+        return new BookingPageDto(bookings.stream()
+                .map(BookingMapper::toDto)
+                .collect(Collectors.toList()), nextCursor);
+    }
+
+    private static void checkBookable(Item item, long userId) {
+        if (item.getOwner().getId() == userId) {
+            throw new NotBookingRelationException("User (id = " + userId + ") can't book item (id = "
+                    + item.getId() + ") because he doesn't own it");
+        }
+        if (!item.getAvailable()) {
+            throw new AccessItemDeniedException("Item not available");
+        }
+    }
+
+    private void checkNotOverlapping(long itemId, LocalDateTime start, LocalDateTime end) {
+        if (bookingRepository.existsApprovedOverlap(itemId, start, end)) {
+            throw new BookingOverlapException("Item (id = " + itemId + ") is already booked from " + start
+                    + " to " + end);
+        }
+    }
+
+    private static void checkNotOverlapping(long itemId, LocalDateTime start, LocalDateTime end,
+                                            List<Booking> approved) {
+        boolean overlaps = approved.stream()
+                .filter(booking -> booking.getStart().isBefore(end))
+                .max(Comparator.comparing(Booking::getStart))
+                .filter(booking -> booking.getEnd().isAfter(start))
+                .isPresent();
+        if (overlaps) {
+            throw new BookingOverlapException("Item (id = " + itemId + ") is already booked from " + start
+                    + " to " + end);
+        }
+    }
+
+    private Map<Long, List<Booking>> findApprovedCandidates(Set<Long> itemIds, List<NewBookingDto> bookingDtos) {
+        List<NewBookingDto> dated = bookingDtos.stream()
+                .filter(bookingDto -> bookingDto.getStart() != null && bookingDto.getEnd() != null)
+                .collect(Collectors.toList());
+        if (dated.isEmpty()) {
+            return Map.of();
+        }
+        LocalDateTime from = dated.stream().map(NewBookingDto::getStart).min(LocalDateTime::compareTo).get();
+        LocalDateTime to = dated.stream().map(NewBookingDto::getEnd).max(LocalDateTime::compareTo).get();
+        List<Booking> candidates = new ArrayList<>(
+                bookingRepository.findLastStartedBeforeByItemIdIn(itemIds, Status.APPROVED, from));
+        candidates.addAll(bookingRepository.findStartingBetweenByItemIdIn(itemIds, Status.APPROVED, from, to));
+        return candidates.stream().collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
+    }
+
+    private static void checkDates(NewBookingDto bookingDto, LocalDateTime now) {
+        if (bookingDto.getStart() == null || bookingDto.getEnd() == null) {
+            throw new InvalidBookingDateException("Booking start and end are required");
+        }
+        if (!bookingDto.getStart().isBefore(bookingDto.getEnd())) {
+            throw new InvalidBookingDateException("Booking start must be before its end");
+        }
+        if (bookingDto.getStart().isBefore(now)) {
+            throw new InvalidBookingDateException("Booking start must not be in the past");
+        }
+    }
 }
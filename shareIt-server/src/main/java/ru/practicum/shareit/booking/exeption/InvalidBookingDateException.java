@@ -0,0 +1,7 @@
+package ru.practicum.shareit.booking.exeption;
+
+public class InvalidBookingDateException extends RuntimeException {
+    public InvalidBookingDateException(String message) {
+        super(message);
+    }
+}
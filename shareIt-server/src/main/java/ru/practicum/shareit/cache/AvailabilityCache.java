@@ -0,0 +1,88 @@
+package ru.practicum.shareit.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.IntervalDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+// An entry holds every interval ending after its since, so it answers any range starting from then on.
+@Component
+public class AvailabilityCache implements MeterBinder {
+    private static final String CACHE_NAME = "itemAvailability";
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final Cache<Long, Entry> cache;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    public AvailabilityCache(@Value("${shareit.availability-cache.maximum-size}") long maximumSize,
+                             @Value("${shareit.availability-cache.ttl}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public List<IntervalDto> get(long itemId, LocalDateTime from, Function<LocalDateTime, List<IntervalDto>> loader) {
+        Entry cached = cache.getIfPresent(itemId);
+        if (cached != null && !from.isBefore(cached.getSince())) {
+            return cached.getIntervals();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime since = from.isBefore(now) ? from : now;
+        long generation = generations.get(stripe(itemId));
+        Entry loaded = new Entry(since, List.copyOf(loader.apply(since)));
+        cache.put(itemId, loaded);
+        if (generations.get(stripe(itemId)) != generation) {
+            cache.asMap().remove(itemId, loaded);
+        }
+        return loaded.getIntervals();
+    }
+
+    // A load that read the state before the commit sees the new generation and drops its result.
+    public void evict(long itemId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(itemId);
+                }
+            });
+        } else {
+            evictNow(itemId);
+        }
+    }
+
+    private void evictNow(long itemId) {
+        generations.incrementAndGet(stripe(itemId));
+        cache.invalidate(itemId);
+    }
+
+    private static int stripe(long itemId) {
+        return Long.hashCode(itemId) & (GENERATION_STRIPES - 1);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+    }
+
+    @Data
+    private static class Entry {
+        private final LocalDateTime since;
+        private final List<IntervalDto> intervals;
+    }
+}
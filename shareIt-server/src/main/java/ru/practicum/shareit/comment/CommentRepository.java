@@ -1,12 +1,21 @@
 package ru.practicum.shareit.comment;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.comment.model.Comment;
 
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
+    @EntityGraph(Comment.WITH_AUTHOR)
+    @Query("SELECT c FROM Comment c WHERE c.item.id = ?1")
     List<Comment> findAllByItemId(long itemId);
 
+    @EntityGraph(Comment.WITH_AUTHOR)
+    @Query("SELECT c FROM Comment c WHERE c.item.id IN :itemIds ORDER BY c.id")
+    List<Comment> findAllByItemIdIn(@Param("itemIds") List<Long> itemIds);
+
 }
@@ -1,38 +1,51 @@
 package ru.practicum.shareit.item;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.comment.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
 
-@Slf4j
+@Validated
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/items")
 public class ItemController {
+    private static final long MAX_PAGE_SIZE = 100;
+
     private final ItemService itemService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping
     public List<ItemDto> getByUser(@RequestHeader("X-Sharer-User-Id") long userId) {
-        log.info("Get items for user {}", userId);
         return itemService.getItemsByUser(userId);
     }
 
     @PostMapping
     public ItemDto add(@RequestHeader("X-Sharer-User-Id") long userId,
                     @Valid @RequestBody ItemDto item) {
-        log.info("Add item for user {}", userId);
         return itemService.addNewItem(userId, item);
     }
 
     @GetMapping("/{id}")
     public ItemDto getById(@RequestHeader("X-Sharer-User-Id") long userId,
                         @PathVariable("id") long id) {
-        log.info("Get item by id {}", id);
         return itemService.getItem(userId, id);
     }
 
@@ -40,14 +53,41 @@ public class ItemController {
     public ItemDto edit(@RequestHeader("X-Sharer-User-Id") long userId,
                      @PathVariable("id") long id,
                      @RequestBody ItemDto item) {
-        log.info("Edit item by id {}", id);
         return itemService.updateItem(userId, id, item);
     }
 
     @GetMapping("/search")
-    public List<ItemDto> searchItemsByKeyword(@RequestParam("text") String keyword) {
-        log.info("Search items by keyword {}", keyword);
-        return itemService.searchItemsByKeyword(keyword);
+    public List<ItemDto> searchItemsByKeyword(@RequestParam("text") String keyword,
+                                              @PositiveOrZero @RequestParam(defaultValue = "0") long from,
+                                              @Positive @Max(MAX_PAGE_SIZE) @RequestParam(defaultValue = "10") long size) {
+        return itemService.searchItemsByKeyword(keyword, from, size);
+    }
+
+    @GetMapping(value = "/search/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamItemsByKeyword(@RequestParam("text") String keyword,
+                                     HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        OutputStream outputStream = response.getOutputStream();
+        itemService.streamItemsByKeyword(keyword, item -> {
+            try {
+                outputStream.write(objectMapper.writeValueAsBytes(item));
+                outputStream.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        outputStream.flush();
+    }
+
+    @GetMapping("/{id}/availability")
+    public ItemAvailabilityDto getAvailability(@RequestHeader("X-Sharer-User-Id") long userId,
+                                               @PathVariable("id") long id,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                               LocalDateTime from,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                               LocalDateTime to) {
+        return itemService.getAvailability(userId, id, from, to);
     }
 
     @PostMapping("/{itemId}/comment")
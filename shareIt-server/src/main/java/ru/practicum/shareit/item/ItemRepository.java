@@ -1,22 +1,44 @@
 package ru.practicum.shareit.item;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
+    String SEARCH_CONDITION = "where (upper(i.name) like upper(concat('%', ?1, '%')) " +
+            " or upper(i.description) like upper(concat('%', ?1, '%')))" +
+            " and i.available=true" +
+            " order by case when upper(i.name) like upper(concat('%', ?1, '%')) then 0 else 1 end, i.id";
+
     List<Item> findAllByOwnerIdOrderById(long userId);
 
-    @Query(" select i from Item i " +
-            "where (upper(i.name) like upper(concat('%', ?1, '%')) " +
-            " or upper(i.description) like upper(concat('%', ?1, '%')))" +
-            " and i.available=true")
-    List<Item> search(String text);
+    @Query(" select i from Item i " + SEARCH_CONDITION)
+    List<Item> search(String text, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "100"))
+    @Query(" select i from Item i " + SEARCH_CONDITION)
+    Stream<Item> streamSearch(String text);
 
+    @Query("select i from Item i where i.request.id in ?1")
     List<Item> findAllByRequestIdIn(List<Long> itemRequestIds);
 
+    @Query("select i from Item i where i.request.id = ?1")
     List<Item> findAllByRequestId(long requestId);
 
+    // Taken before the booking is read, so decisions on the item's bookings see each other's status.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id = (select b.item.id from Booking b where b.id = ?1)")
+    Optional<Item> findByBookingIdForUpdate(long bookingId);
+
 }
@@ -1,9 +1,12 @@
 package ru.practicum.shareit.item;
 
 import ru.practicum.shareit.comment.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ItemService {
     List<ItemDto> getItemsByUser(long userId);
@@ -14,7 +17,11 @@ public interface ItemService {
 
     ItemDto updateItem(long userId, long id, ItemDto item);
 
-    List<ItemDto> searchItemsByKeyword(String keyword);
+    List<ItemDto> searchItemsByKeyword(String keyword, long from, long size);
+
+    void streamItemsByKeyword(String keyword, Consumer<ItemDto> consumer);
 
     CommentDto addComment(long userId, long itemId, CommentDto commentDto);
+
+    ItemAvailabilityDto getAvailability(long userId, long itemId, LocalDateTime from, LocalDateTime to);
 }
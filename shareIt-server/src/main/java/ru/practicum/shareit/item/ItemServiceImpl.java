@@ -1,16 +1,21 @@
 package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.BookingMapper;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.exeption.InvalidBookingDateException;
 import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.cache.AvailabilityCache;
 import ru.practicum.shareit.comment.model.Comment;
 import ru.practicum.shareit.comment.CommentMapper;
 import ru.practicum.shareit.comment.CommentRepository;
 import ru.practicum.shareit.comment.dto.CommentDto;
+import ru.practicum.shareit.item.dto.IntervalDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.exception.NoFinishBookingForCommentException;
 import ru.practicum.shareit.item.exception.NotFoundDataException;
@@ -20,20 +25,30 @@ import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
+import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 @RequiredArgsConstructor
 public class ItemServiceImpl implements ItemService {
+    private static final LocalDateTime MAX_DATE = LocalDateTime.of(9999, 12, 31, 0, 0);
+
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final EntityManager entityManager;
+    private final AvailabilityCache availabilityCache;
 
     @Override
     @Transactional(readOnly = true)
@@ -42,21 +57,29 @@ public class ItemServiceImpl implements ItemService {
             List<ItemDto> items = itemRepository.findAllByOwnerIdOrderById(userId).stream()
                     .map(ItemMapper::toDto)
                     .collect(Collectors.toList());
+            if (items.isEmpty()) {
+                return items;
+            }
+            List<Long> itemIds = items.stream()
+                    .map(ItemDto::getId)
+                    .collect(Collectors.toList());
+            LocalDateTime now = LocalDateTime.now();
+            Map<Long, List<CommentDto>> comments = commentRepository.findAllByItemIdIn(itemIds).stream()
+                    .collect(Collectors.groupingBy(comment -> comment.getItem().getId(),
+                            Collectors.mapping(CommentMapper::toDto, Collectors.toList())));
+            Map<Long, Booking> lastBookings = toBookingsByItemId(
+                    bookingRepository.findLastBookingsByItemIdIn(itemIds, now, Status.APPROVED));
+            Map<Long, Booking> nextBookings = toBookingsByItemId(
+                    bookingRepository.findNextBookingsByItemIdIn(itemIds, now, Status.APPROVED));
             for (ItemDto item : items) {
-                item.setComments(commentRepository.findAllByItemId(item.getId()).stream()
-                        .map(CommentMapper::toDto)
-                        .collect(Collectors.toList()));
-                Optional<Booking> lastBooking =
-                        bookingRepository.findFirstByItemIdAndStartIsBeforeAndStatusOrderByStartDesc(
-                                item.getId(), LocalDateTime.now(), Status.APPROVED);
-                if (lastBooking.isPresent()) {
-                    item.setLastBooking(BookingMapper.toDto(lastBooking.get(), lastBooking.get().getBooker().getId()));
+                item.setComments(comments.getOrDefault(item.getId(), new ArrayList<>()));
+                Booking lastBooking = lastBookings.get(item.getId());
+                if (lastBooking != null) {
+                    item.setLastBooking(BookingMapper.toDto(lastBooking, lastBooking.getBooker().getId()));
                 }
-                Optional<Booking> nextBooking =
-                        bookingRepository.findFirstByItemIdAndStartIsAfterAndStatusOrderByStartAsc(
-                                item.getId(), LocalDateTime.now(), Status.APPROVED);
-                if (nextBooking.isPresent()) {
-                    item.setNextBooking(BookingMapper.toDto(nextBooking.get(), nextBooking.get().getBooker().getId()));
+                Booking nextBooking = nextBookings.get(item.getId());
+                if (nextBooking != null) {
+                    item.setNextBooking(BookingMapper.toDto(nextBooking, nextBooking.getBooker().getId()));
                 }
             }
             return items;
@@ -111,8 +134,9 @@ public class ItemServiceImpl implements ItemService {
 
     @Override
     public ItemDto updateItem(long userId, long id, ItemDto itemDto) {
-        if (itemRepository.findById(id).isPresent() && itemRepository.findById(id).get().getOwner().getId() == userId) {
-            Item item = itemRepository.findById(id).get();
+        Optional<Item> storedItem = itemRepository.findById(id);
+        if (storedItem.isPresent() && storedItem.get().getOwner().getId() == userId) {
+            Item item = storedItem.get();
             if (itemDto.getName() != null) {
                 item.setName(itemDto.getName());
             }
@@ -129,15 +153,29 @@ public class ItemServiceImpl implements ItemService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<ItemDto> searchItemsByKeyword(String keyword) {
+    public List<ItemDto> searchItemsByKeyword(String keyword, long from, long size) {
         if (keyword.isBlank()) {
             return List.of();
         }
-        return itemRepository.search(keyword).stream()
+        return itemRepository.search(keyword, PageRequest.of((int) (from / size), (int) size)).stream()
                 .map(ItemMapper::toDto)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void streamItemsByKeyword(String keyword, Consumer<ItemDto> consumer) {
+        if (keyword.isBlank()) {
+            return;
+        }
+        try (Stream<Item> items = itemRepository.streamSearch(keyword)) {
+            items.forEach(item -> {
+                consumer.accept(ItemMapper.toDto(item));
+                entityManager.clear();
+            });
+        }
+    }
+
     @Override
     public CommentDto addComment(long userId, long itemId, CommentDto commentDto) {
         User author = userRepository.findById(userId).orElseThrow(() ->
@@ -151,4 +189,63 @@ public class ItemServiceImpl implements ItemService {
         return CommentMapper.toDto(commentRepository.save(comment));
 
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ItemAvailabilityDto getAvailability(long userId, long itemId, LocalDateTime from, LocalDateTime to) {
+        userRepository.findById(userId).orElseThrow(() ->
+                new NotFoundDataException("User with id " + userId + " not found"));
+        itemRepository.findById(itemId).orElseThrow(() ->
+                new NotFoundDataException("Item with id " + itemId + " not found"));
+        if (!from.isBefore(to)) {
+            throw new InvalidBookingDateException("Availability range start must be before its end");
+        }
+        List<IntervalDto> bookings = availabilityCache.get(itemId, from,
+                        since -> bookingRepository.findIntervalsByItemId(itemId, Status.APPROVED, since, MAX_DATE))
+                .stream()
+                .filter(booking -> booking.getStart().isBefore(to) && booking.getEnd().isAfter(from))
+                .collect(Collectors.toList());
+        return toAvailability(itemId, from, to, bookings);
+    }
+
+    private static ItemAvailabilityDto toAvailability(long itemId, LocalDateTime from, LocalDateTime to,
+                                                      List<IntervalDto> bookings) {
+        List<IntervalDto> busy = new ArrayList<>();
+        for (IntervalDto booking : bookings) {
+            LocalDateTime start = booking.getStart().isBefore(from) ? from : booking.getStart();
+            LocalDateTime end = booking.getEnd().isAfter(to) ? to : booking.getEnd();
+            IntervalDto last = busy.isEmpty() ? null : busy.get(busy.size() - 1);
+            if (last != null && !start.isAfter(last.getEnd())) {
+                if (end.isAfter(last.getEnd())) {
+                    last.setEnd(end);
+                }
+            } else {
+                busy.add(new IntervalDto(start, end));
+            }
+        }
+        List<IntervalDto> free = new ArrayList<>();
+        LocalDateTime freeFrom = from;
+        for (IntervalDto interval : busy) {
+            if (freeFrom.isBefore(interval.getStart())) {
+                free.add(new IntervalDto(freeFrom, interval.getStart()));
+            }
+            freeFrom = interval.getEnd();
+        }
+        if (freeFrom.isBefore(to)) {
+            free.add(new IntervalDto(freeFrom, to));
+        }
+        return ItemAvailabilityDto.builder()
+                .itemId(itemId)
+                .from(from)
+                .to(to)
+                .busy(busy)
+                .free(free)
+                .build();
+    }
+
+    private static Map<Long, Booking> toBookingsByItemId(List<Booking> bookings) {
+        return bookings.stream()
+                .collect(Collectors.toMap(booking -> booking.getItem().getId(), Function.identity(),
+                        (first, second) -> first.getId() <= second.getId() ? first : second));
+    }
 }
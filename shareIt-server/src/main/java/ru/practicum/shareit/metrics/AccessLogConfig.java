@@ -0,0 +1,53 @@
+package ru.practicum.shareit.metrics;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class AccessLogConfig {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    @Bean
+    public AccessLogFilter accessLogFilter(@Value("${shareit.access-log.sample-rate}") int sampleRate) {
+        return new AccessLogFilter(sampleRate);
+    }
+
+    @Slf4j(topic = "shareit.access")
+    @RequiredArgsConstructor
+    static class AccessLogFilter extends OncePerRequestFilter {
+        private final int sampleRate;
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                throws ServletException, IOException {
+            long start = System.nanoTime();
+            int status = HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+            try {
+                chain.doFilter(request, response);
+                status = response.getStatus();
+            } finally {
+                if (log.isInfoEnabled() && (status >= 400 || sampled())) {
+                    log.info("method={} uri={} endpoint=\"{}\" status={} duration_ms={} user_id={}",
+                            request.getMethod(), request.getRequestURI(), Endpoints.of(request), status,
+                            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), request.getHeader(USER_HEADER));
+                }
+            }
+        }
+
+        private boolean sampled() {
+            return sampleRate > 0 && ThreadLocalRandom.current().nextInt(sampleRate) == 0;
+        }
+    }
+}
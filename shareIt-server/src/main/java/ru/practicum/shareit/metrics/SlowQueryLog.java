@@ -0,0 +1,33 @@
+package ru.practicum.shareit.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// A sample rate of 0 disables sampling; bind values are never logged.
+@Slf4j(topic = "shareit.slow-query")
+class SlowQueryLog {
+    private final long thresholdNanos;
+    private final int sampleRate;
+
+    SlowQueryLog(Duration threshold, int sampleRate) {
+        this.thresholdNanos = threshold.toNanos();
+        this.sampleRate = sampleRate;
+    }
+
+    void record(String sql, long nanos) {
+        if (nanos >= thresholdNanos) {
+            log.warn("Slow query: sql_time_ms={} threshold_ms={} sql=\"{}\"",
+                    TimeUnit.NANOSECONDS.toMillis(nanos), TimeUnit.NANOSECONDS.toMillis(thresholdNanos), oneLine(sql));
+        } else if (sampleRate > 0 && log.isInfoEnabled() && ThreadLocalRandom.current().nextInt(sampleRate) == 0) {
+            log.info("Sampled query: sql_time_ms={} sample_rate={} sql=\"{}\"",
+                    TimeUnit.NANOSECONDS.toMillis(nanos), sampleRate, oneLine(sql));
+        }
+    }
+
+    private static String oneLine(String sql) {
+        return sql == null ? "batch" : sql.replaceAll("\\s+", " ").trim();
+    }
+}
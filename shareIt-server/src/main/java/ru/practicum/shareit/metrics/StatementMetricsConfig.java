@@ -0,0 +1,151 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class StatementMetricsConfig {
+    @Bean
+    public static BeanPostProcessor countingDataSourcePostProcessor(
+            @Value("${shareit.sql.slow-query.threshold}") Duration slowQueryThreshold,
+            @Value("${shareit.sql.slow-query.sample-rate}") int sampleRate) {
+        SlowQueryLog slowQueryLog = new SlowQueryLog(slowQueryThreshold, sampleRate);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource ? new CountingDataSource((DataSource) bean, slowQueryLog) : bean;
+            }
+        };
+    }
+
+    @Bean
+    public StatementCountFilter statementCountFilter(MeterRegistry meterRegistry,
+                                                     @Value("${shareit.sql.statement-warn-threshold}")
+                                                     int warnThreshold) {
+        return new StatementCountFilter(meterRegistry, warnThreshold);
+    }
+
+    @Slf4j
+    @RequiredArgsConstructor
+    static class StatementCountFilter extends OncePerRequestFilter {
+        private final MeterRegistry meterRegistry;
+        private final int warnThreshold;
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                throws ServletException, IOException {
+            RequestStatements statements = RequestStatements.start();
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                RequestStatements.finish();
+                report(request, statements);
+            }
+        }
+
+        private void report(HttpServletRequest request, RequestStatements statements) {
+            String endpoint = Endpoints.of(request);
+            DistributionSummary.builder("shareit.request.sql.statements")
+                    .tag("endpoint", endpoint)
+                    .register(meterRegistry)
+                    .record(statements.getCount());
+            Timer.builder("shareit.request.sql.time")
+                    .tag("endpoint", endpoint)
+                    .register(meterRegistry)
+                    .record(statements.getNanos(), TimeUnit.NANOSECONDS);
+            long millis = TimeUnit.NANOSECONDS.toMillis(statements.getNanos());
+            if (statements.getCount() > warnThreshold) {
+                meterRegistry.counter("shareit.request.sql.excessive", "endpoint", endpoint).increment();
+                log.warn("Suspected N+1 queries: endpoint=\"{}\" uri={} sql_statements={} sql_time_ms={} threshold={}",
+                        endpoint, request.getRequestURI(), statements.getCount(), millis, warnThreshold);
+            } else {
+                log.debug("SQL per request: endpoint=\"{}\" sql_statements={} sql_time_ms={}",
+                        endpoint, statements.getCount(), millis);
+            }
+        }
+    }
+
+    private static class CountingDataSource extends DelegatingDataSource {
+        private final SlowQueryLog slowQueryLog;
+
+        CountingDataSource(DataSource target, SlowQueryLog slowQueryLog) {
+            super(target);
+            this.slowQueryLog = slowQueryLog;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return counting(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return counting(super.getConnection(username, password));
+        }
+
+        private Connection counting(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                        Object result = invoke(connection, method, args);
+                        if (!(result instanceof Statement)) {
+                            return result;
+                        }
+                        String sql = args != null && args.length > 0 && args[0] instanceof String
+                                ? (String) args[0] : null;
+                        return countingStatement((Statement) result, sql);
+                    });
+        }
+
+        // A JDBC batch counts as one round trip.
+        private Statement countingStatement(Statement statement, String preparedSql) {
+            return (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(),
+                    ClassUtils.getAllInterfaces(statement), (proxy, method, args) -> {
+                        if (!method.getName().startsWith("execute")) {
+                            return invoke(statement, method, args);
+                        }
+                        long start = System.nanoTime();
+                        try {
+                            return invoke(statement, method, args);
+                        } finally {
+                            long nanos = System.nanoTime() - start;
+                            RequestStatements.record(nanos);
+                            String sql = preparedSql != null || args == null ? preparedSql : (String) args[0];
+                            slowQueryLog.record(sql, nanos);
+                        }
+                    });
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -1,48 +1,87 @@
 package ru.practicum.shareit.user;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserPageDto;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Positive;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Collection;
+import java.util.List;
 
-@Slf4j
+import static ru.practicum.shareit.booking.BookingController.NEXT_CURSOR_HEADER;
+
+@Validated
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/users")
 public class UserController {
+    private static final long MAX_PAGE_SIZE = 100;
+
     private final UserService userService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping
     public Collection<UserDto> getAll() {
-        log.info("Getting all users: {}", userService.getAll().toString());
         return userService.getAll();
     }
 
+    @GetMapping(params = "cursor")
+    public ResponseEntity<List<UserDto>> getPage(@RequestParam String cursor,
+                                                 @Positive @Max(MAX_PAGE_SIZE) @RequestParam(defaultValue = "10") long size) {
+        UserPageDto page = userService.getPage(cursor, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getUsers());
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamAll(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        OutputStream outputStream = response.getOutputStream();
+        userService.streamAll(user -> {
+            try {
+                outputStream.write(objectMapper.writeValueAsBytes(user));
+                outputStream.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        outputStream.flush();
+    }
+
     @PostMapping
     public UserDto save(@Valid @RequestBody UserDto user) {
-        log.info("Saving user {}", user);
         return userService.save(user);
     }
 
     @GetMapping("/{id}")
     public UserDto get(@PathVariable long id) {
-        log.info("Getting user with id {}", id);
         return userService.get(id);
     }
 
     @PatchMapping("/{id}")
     public UserDto update(@PathVariable long id,
                        @RequestBody UserDto user) {
-        log.info("Updating user with id {} to {}", id, user);
         return userService.update(id, user);
     }
 
     @DeleteMapping("/{id}")
     public void delete(@PathVariable long id) {
-        log.info("Deleting user with id {}", id);
         userService.delete(id);
     }
 
@@ -1,8 +1,10 @@
 package ru.practicum.shareit.user;
 
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserPageDto;
 
 import java.util.Collection;
+import java.util.function.Consumer;
 
 public interface UserService {
     UserDto save(UserDto user);
@@ -14,4 +16,8 @@ public interface UserService {
     void delete(long id);
 
     Collection<UserDto> getAll();
+
+    UserPageDto getPage(String cursor, long size);
+
+    void streamAll(Consumer<UserDto> consumer);
 }
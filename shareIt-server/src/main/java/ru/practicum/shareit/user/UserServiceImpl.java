@@ -1,21 +1,31 @@
 package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.exeption.InvalidCursorException;
 import ru.practicum.shareit.item.exception.NotFoundDataException;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserPageDto;
 import ru.practicum.shareit.user.exception.DuplicateEmailException;
 
+import javax.persistence.EntityManager;
 import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
+    private final EntityManager entityManager;
 
     @Override
     public UserDto save(UserDto user) {
@@ -64,4 +74,38 @@ public class UserServiceImpl implements UserService {
                 .map(UserMapper::toDto)
                 .collect(Collectors.toList());
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public UserPageDto getPage(String cursor, long size) {
+        long afterId;
+        try {
+            afterId = cursor.isEmpty() ? 0 : Long.parseLong(cursor);
+        } catch (NumberFormatException e) {
+            throw new InvalidCursorException("Invalid cursor: " + cursor);
+        }
+        List<User> users = userRepository.findAllByIdGreaterThanOrderById(afterId, PageRequest.of(0, (int) size));
+        String nextCursor = users.size() == size
+                ? String.valueOf(users.get(users.size() - 1).getId())
+                : null;
+        return new UserPageDto(users.stream()
+                .map(UserMapper::toDto)
+                .collect(Collectors.toList()), nextCursor);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<UserDto> consumer) {
+        Session session = entityManager.unwrap(Session.class);
+        CacheMode cacheMode = session.getCacheMode();
+        session.setCacheMode(CacheMode.IGNORE);
+        try (Stream<User> users = userRepository.streamAll()) {
+            users.forEach(user -> {
+                consumer.accept(UserMapper.toDto(user));
+                entityManager.clear();
+            });
+        } finally {
+            session.setCacheMode(cacheMode);
+        }
+    }
 }
@@ -0,0 +1,35 @@
+-- Moves each sequence past rows written before ids came from sequences; leaves it alone otherwise.
+SELECT setval('users_seq', (SELECT MAX(id) + 1 FROM users), false) FROM users_seq
+WHERE (SELECT MAX(id) FROM users) >= last_value + CASE WHEN is_called THEN 50 ELSE 0 END;
+SELECT setval('requests_seq', (SELECT MAX(id) + 1 FROM requests), false) FROM requests_seq
+WHERE (SELECT MAX(id) FROM requests) >= last_value + CASE WHEN is_called THEN 50 ELSE 0 END;
+SELECT setval('items_seq', (SELECT MAX(id) + 1 FROM items), false) FROM items_seq
+WHERE (SELECT MAX(id) FROM items) >= last_value + CASE WHEN is_called THEN 50 ELSE 0 END;
+SELECT setval('bookings_seq', (SELECT MAX(id) + 1 FROM bookings), false) FROM bookings_seq
+WHERE (SELECT MAX(id) FROM bookings) >= last_value + CASE WHEN is_called THEN 50 ELSE 0 END;
+SELECT setval('comments_seq', (SELECT MAX(id) + 1 FROM comments), false) FROM comments_seq
+WHERE (SELECT MAX(id) FROM comments) >= last_value + CASE WHEN is_called THEN 50 ELSE 0 END;
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS items_name_trgm_idx
+    ON items USING gin (upper(name) gin_trgm_ops) WHERE is_available = true;
+
+CREATE INDEX IF NOT EXISTS items_description_trgm_idx
+    ON items USING gin (upper(description) gin_trgm_ops) WHERE is_available = true;
+
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- Runs once: rejects approvals that overlap an earlier approval of the item, then makes the database keep them apart.
+DO '
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = ''bookings_approved_no_overlap'') THEN
+        UPDATE bookings b SET status = ''REJECTED''
+        WHERE b.status = ''APPROVED'' AND EXISTS (
+            SELECT 1 FROM bookings o
+            WHERE o.item_id = b.item_id AND o.status = ''APPROVED'' AND o.id < b.id
+                AND o.start_date < b.end_date AND o.end_date > b.start_date);
+        ALTER TABLE bookings ADD CONSTRAINT bookings_approved_no_overlap
+            EXCLUDE USING gist (item_id WITH =, tsrange(start_date, end_date) WITH &&) WHERE (status = ''APPROVED'');
+    END IF;
+END';
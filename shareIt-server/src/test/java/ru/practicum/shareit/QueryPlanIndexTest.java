@@ -0,0 +1,279 @@
+package ru.practicum.shareit;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.comment.CommentRepository;
+import ru.practicum.shareit.comment.model.Comment;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "ru.practicum.shareit.QueryPlanIndexTest$CapturingStatementInspector")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class QueryPlanIndexTest {
+    private static final int USERS = 50;
+    private static final int ITEMS_PER_USER = 10;
+    private static final int BOOKINGS_PER_ITEM = 10;
+
+    // served by the pg_trgm indexes from schema-postgresql.sql, which H2 lacks
+    private static final Set<String> POSTGRES_ONLY_INDEXED = Set.of("search", "streamSearch");
+
+    private static final List<String> CAPTURED_SQL = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    private final UserRepository userRepository;
+
+    @Autowired
+    private final ItemRepository itemRepository;
+
+    @Autowired
+    private final ItemRequestRepository itemRequestRepository;
+
+    @Autowired
+    private final BookingRepository bookingRepository;
+
+    @Autowired
+    private final CommentRepository commentRepository;
+
+    @Autowired
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private final TransactionTemplate transactionTemplate;
+
+    private User user;
+    private Item item;
+    private Booking booking;
+
+    @BeforeEach
+    void fillDataBase() {
+        LocalDateTime now = LocalDateTime.now();
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            users.add(User.builder().name("user" + i).email("plan" + i + "@yandex.ru").build());
+        }
+        userRepository.saveAll(users);
+        List<ItemRequest> requests = new ArrayList<>();
+        List<Item> items = new ArrayList<>();
+        for (User owner : users) {
+            ItemRequest request = ItemRequest.builder()
+                    .description("request").requester(owner).created(now).build();
+            requests.add(request);
+            for (int i = 0; i < ITEMS_PER_USER; i++) {
+                items.add(Item.builder().name("item").description("description").available(true)
+                        .owner(owner).request(request).build());
+            }
+        }
+        itemRequestRepository.saveAll(requests);
+        itemRepository.saveAll(items);
+        List<Booking> bookings = new ArrayList<>();
+        List<Comment> comments = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            Item bookedItem = items.get(i);
+            User booker = users.get((i + 1) % USERS);
+            comments.add(Comment.builder().text("comment").item(bookedItem).author(booker).created(now).build());
+            for (int j = 0; j < BOOKINGS_PER_ITEM; j++) {
+                bookings.add(Booking.builder()
+                        .start(now.plusDays(j - BOOKINGS_PER_ITEM / 2))
+                        .end(now.plusDays(j - BOOKINGS_PER_ITEM / 2).plusHours(1))
+                        .item(bookedItem).booker(booker)
+                        .status(Status.values()[j % Status.values().length])
+                        .build());
+            }
+        }
+        bookingRepository.saveAll(bookings);
+        commentRepository.saveAll(comments);
+        jdbcTemplate.execute("ANALYZE");
+        user = users.get(0);
+        item = items.get(0);
+        booking = bookings.get(0);
+    }
+
+    @AfterEach
+    void clearDataBase() {
+        bookingRepository.deleteAll();
+        commentRepository.deleteAll();
+        itemRepository.deleteAll();
+        itemRequestRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void everyRepositoryQueryUsesAnIndex() {
+        Map<String, Runnable> queries = repositoryQueries();
+
+        assertThat("every declared repository query must be checked", queries.keySet(),
+                equalTo(declaredQueryMethods()));
+
+        List<String> tableScans = new ArrayList<>();
+        queries.forEach((name, query) -> {
+            CAPTURED_SQL.clear();
+            transactionTemplate.executeWithoutResult(status -> query.run());
+            if (POSTGRES_ONLY_INDEXED.contains(name)) {
+                return;
+            }
+            for (String sql : CAPTURED_SQL) {
+                String plan = explain(sql);
+                if (plan.contains(".tableScan")) {
+                    tableScans.add(name + ": " + plan);
+                }
+            }
+        });
+
+        assertThat(tableScans, empty());
+    }
+
+    private Map<String, Runnable> repositoryQueries() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime min = LocalDateTime.of(1900, 1, 1, 0, 0);
+        LocalDateTime max = LocalDateTime.of(9999, 12, 31, 0, 0);
+        long userId = user.getId();
+        long itemId = item.getId();
+        long bookingId = booking.getId();
+        List<Long> itemIds = List.of(itemId, itemId + 1);
+        List<Status> statuses = List.of(Status.values());
+        PageRequest page = PageRequest.of(0, 10);
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("findAllByIdGreaterThanOrderById",
+                () -> userRepository.findAllByIdGreaterThanOrderById(userId, page));
+        queries.put("streamAll", () -> {
+            try (Stream<User> users = userRepository.streamAll()) {
+                users.forEach(found -> { });
+            }
+        });
+        queries.put("findAllByOwnerIdOrderById", () -> itemRepository.findAllByOwnerIdOrderById(userId));
+        queries.put("search", () -> itemRepository.search("item", page));
+        queries.put("streamSearch", () -> {
+            try (Stream<Item> items = itemRepository.streamSearch("item")) {
+                items.forEach(found -> { });
+            }
+        });
+        queries.put("findAllByRequestIdIn", () -> itemRepository.findAllByRequestIdIn(List.of(1L, 2L)));
+        queries.put("findAllByRequestId", () -> itemRepository.findAllByRequestId(1L));
+        queries.put("findByBookingIdForUpdate", () -> itemRepository.findByBookingIdForUpdate(bookingId));
+        queries.put("findAllByRequesterIdOrderByCreatedDesc",
+                () -> itemRequestRepository.findAllByRequesterIdOrderByCreatedDesc(userId));
+        queries.put("findAllByRequesterIdIsNot", () -> itemRequestRepository.findAllByRequesterIdIsNot(userId,
+                PageRequest.of(0, 10, Sort.by("created").descending())));
+        queries.put("findAllByItemId", () -> commentRepository.findAllByItemId(itemId));
+        queries.put("findAllByItemIdIn", () -> commentRepository.findAllByItemIdIn(itemIds));
+        queries.put("findById", () -> bookingRepository.findById(bookingId));
+        queries.put("findAllByBookerIdOrderByStartDesc",
+                () -> bookingRepository.findAllByBookerIdOrderByStartDesc(userId, page));
+        queries.put("findAllByBookerIdAndStartIsAfterOrderByStartDesc",
+                () -> bookingRepository.findAllByBookerIdAndStartIsAfterOrderByStartDesc(userId, now, page));
+        queries.put("findAllByBookerIdAndEndIsBeforeOrderByStartDesc",
+                () -> bookingRepository.findAllByBookerIdAndEndIsBeforeOrderByStartDesc(userId, now, page));
+        queries.put("findAllByBookerIdAndTimeRangeOrderByStartDesc",
+                () -> bookingRepository.findAllByBookerIdAndTimeRangeOrderByStartDesc(userId, now, now, page));
+        queries.put("findAllByBookerIdAndStatusOrderByStartDesc",
+                () -> bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(userId, Status.WAITING, page));
+        queries.put("findAllByItemOwnerIdOrderByStartDesc",
+                () -> bookingRepository.findAllByItemOwnerIdOrderByStartDesc(userId, page));
+        queries.put("findAllByItemOwnerIdAndStartIsAfterOrderByStartDesc",
+                () -> bookingRepository.findAllByItemOwnerIdAndStartIsAfterOrderByStartDesc(userId, now, page));
+        queries.put("findAllByItemOwnerIdAndEndIsBeforeOrderByStartDesc",
+                () -> bookingRepository.findAllByItemOwnerIdAndEndIsBeforeOrderByStartDesc(userId, now, page));
+        queries.put("findAllByOwnerIdAndTimeRangeOrderByStartDesc",
+                () -> bookingRepository.findAllByOwnerIdAndTimeRangeOrderByStartDesc(userId, now, now, page));
+        queries.put("findAllByItemOwnerIdAndStatusOrderByStartDesc",
+                () -> bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(userId, Status.WAITING, page));
+        queries.put("findEndedByBookerIdAndItemId", () -> bookingRepository.findEndedByBookerIdAndItemId(
+                userId, itemId, Status.APPROVED, now, page));
+        queries.put("findStartedBeforeByItemId",
+                () -> bookingRepository.findStartedBeforeByItemId(itemId, now, Status.APPROVED, page));
+        queries.put("findStartingBetweenByItemIdIn",
+                () -> bookingRepository.findStartingBetweenByItemIdIn(itemIds, Status.APPROVED, now, now));
+        queries.put("findLastStartedBeforeByItemIdIn",
+                () -> bookingRepository.findLastStartedBeforeByItemIdIn(itemIds, Status.APPROVED, now));
+        queries.put("findStartingAfterByItemId",
+                () -> bookingRepository.findStartingAfterByItemId(itemId, now, Status.APPROVED, page));
+        queries.put("findIntervalsByItemId",
+                () -> bookingRepository.findIntervalsByItemId(itemId, Status.APPROVED, min, max));
+        queries.put("findLastBookingsByItemIdIn",
+                () -> bookingRepository.findLastBookingsByItemIdIn(itemIds, now, Status.APPROVED));
+        queries.put("findNextBookingsByItemIdIn",
+                () -> bookingRepository.findNextBookingsByItemIdIn(itemIds, now, Status.APPROVED));
+        queries.put("findPageByBookerIdBeforeCursor",
+                () -> bookingRepository.findPageByBookerIdBeforeCursor(userId, min, max, min, max, statuses,
+                        max, Long.MAX_VALUE, page));
+        queries.put("findPageByOwnerIdBeforeCursor",
+                () -> bookingRepository.findPageByOwnerIdBeforeCursor(userId, min, max, min, max, statuses,
+                        max, Long.MAX_VALUE, page));
+        return queries;
+    }
+
+    private static Set<String> declaredQueryMethods() {
+        return Stream.of(UserRepository.class, ItemRepository.class, ItemRequestRepository.class,
+                        BookingRepository.class, CommentRepository.class)
+                .flatMap(repository -> Arrays.stream(repository.getDeclaredMethods()))
+                .filter(method -> !method.isSynthetic() && !method.isDefault())
+                .map(Method::getName)
+                .collect(Collectors.toSet());
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.execute((Connection connection) -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                int parameters = statement.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameters; i++) {
+                    statement.setNull(i, Types.NULL);
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    return resultSet.getString(1);
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException("Cannot explain " + sql, e);
+            }
+        });
+    }
+
+    public static class CapturingStatementInspector implements StatementInspector {
+        @Override
+        public String inspect(String sql) {
+            if (sql.trim().toLowerCase().startsWith("select")) {
+                CAPTURED_SQL.add(sql);
+            }
+            return sql;
+        }
+    }
+}
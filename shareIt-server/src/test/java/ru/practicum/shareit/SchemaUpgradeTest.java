@@ -0,0 +1,98 @@
+package ru.practicum.shareit;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.comment.CommentRepository;
+import ru.practicum.shareit.comment.model.Comment;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class SchemaUpgradeTest {
+    private static final String URL = "jdbc:h2:mem:upgrade;DB_CLOSE_DELAY=-1";
+    private static final long EXISTING_ROWS = 3;
+
+    private final UserRepository userRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final CommentRepository commentRepository;
+
+    @DynamicPropertySource
+    static void existingDatabase(DynamicPropertyRegistry registry) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(URL, "admin", "admin");
+             Statement statement = connection.createStatement()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("schema-before-sequences.sql"));
+            for (long id = 1; id <= EXISTING_ROWS; id++) {
+                statement.execute("INSERT INTO users VALUES (" + id + ", 'user', 'user" + id + "@mail.ru')");
+            }
+            for (long id = 1; id <= EXISTING_ROWS; id++) {
+                statement.execute("INSERT INTO requests VALUES (" + id + ", 'request', 1, CURRENT_TIMESTAMP)");
+                statement.execute("INSERT INTO items VALUES (" + id + ", 'item', 'item', TRUE, 1, 1)");
+                statement.execute("INSERT INTO bookings VALUES (" + id + ", CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 1, 2, "
+                        + "'APPROVED')");
+                statement.execute("INSERT INTO comments VALUES (" + id + ", 'comment', 1, 2, CURRENT_TIMESTAMP)");
+            }
+        }
+        registry.add("spring.datasource.url", () -> URL);
+    }
+
+    @Test
+    void newRowsGetIdsAfterExistingOnes() {
+        User user = userRepository.save(User.builder().name("new").email("new@mail.ru").build());
+        ItemRequest request = itemRequestRepository.save(ItemRequest.builder()
+                .description("request")
+                .requester(user)
+                .created(LocalDateTime.now())
+                .build());
+        Item item = itemRepository.save(Item.builder()
+                .name("item")
+                .description("item")
+                .available(true)
+                .owner(user)
+                .request(request)
+                .build());
+        Booking booking = bookingRepository.save(Booking.builder()
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .item(item)
+                .booker(userRepository.findById(1L).orElseThrow())
+                .status(Status.WAITING)
+                .build());
+        Comment comment = commentRepository.save(Comment.builder()
+                .text("comment")
+                .item(item)
+                .author(user)
+                .created(LocalDateTime.now())
+                .build());
+
+        assertThat(user.getId(), greaterThan(EXISTING_ROWS));
+        assertThat(request.getId(), greaterThan(EXISTING_ROWS));
+        assertThat(item.getId(), greaterThan(EXISTING_ROWS));
+        assertThat(booking.getId(), greaterThan(EXISTING_ROWS));
+        assertThat(comment.getId(), greaterThan(EXISTING_ROWS));
+    }
+}
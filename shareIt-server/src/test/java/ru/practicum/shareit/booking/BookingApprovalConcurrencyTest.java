@@ -0,0 +1,96 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.exeption.NoWaitingStatusException;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+
+@SpringBootTest(properties = "db.name=admin", webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class BookingApprovalConcurrencyTest {
+    private static final int CALLS = 8;
+
+    @Autowired
+    private final BookingService bookingService;
+
+    @Autowired
+    private final UserRepository userRepository;
+
+    @Autowired
+    private final ItemRepository itemRepository;
+
+    @Autowired
+    private final BookingRepository bookingRepository;
+
+    @Autowired
+    private final MeterRegistry meterRegistry;
+
+    @AfterEach
+    void clearDataBase() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void onlyOneConcurrentApprovalWins() throws InterruptedException {
+        User owner = userRepository.save(User.builder().name("owner").email("owner@yandex.ru").build());
+        User booker = userRepository.save(User.builder().name("booker").email("booker@yandex.ru").build());
+        Item item = itemRepository.save(Item.builder()
+                .name("item").description("description").available(true).owner(owner).build());
+        Booking booking = bookingRepository.save(Booking.builder()
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .item(item).booker(booker).status(Status.WAITING).build());
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(CALLS);
+        List<Future<BookingDto>> results = new ArrayList<>();
+        for (int i = 0; i < CALLS; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return bookingService.update(booking.getId(), owner.getId(), true);
+            }));
+        }
+        start.countDown();
+        executor.shutdown();
+
+        List<BookingDto> decisions = new ArrayList<>();
+        for (Future<BookingDto> result : results) {
+            try {
+                decisions.add(result.get());
+            } catch (ExecutionException e) {
+                assertThat(e.getCause(), instanceOf(NoWaitingStatusException.class));
+            }
+        }
+
+        assertThat(decisions.size(), equalTo(1));
+        assertThat(decisions.get(0).getStatus(), equalTo(Status.APPROVED));
+        assertThat(bookingRepository.findById(booking.getId()).orElseThrow().getStatus(),
+                equalTo(Status.APPROVED));
+        assertThat(meterRegistry.counter("booking.approval.retries").count(),
+                equalTo(meterRegistry.counter("booking.approval.conflicts").count()));
+    }
+}
@@ -8,8 +8,13 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookerDto;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+import ru.practicum.shareit.booking.dto.ItemShortDto;
 import ru.practicum.shareit.booking.dto.NewBookingDto;
+import ru.practicum.shareit.booking.exeption.InvalidCursorException;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
@@ -17,11 +22,16 @@ import ru.practicum.shareit.user.User;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Collections;
 import java.util.List;
 
+import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -57,8 +67,8 @@ public class BookingControllerTest {
                 .start(newBookingDto.getStart())
                 .end(newBookingDto.getEnd())
                 .status(Status.WAITING)
-                .item(item)
-                .booker(booker)
+                .item(new ItemShortDto(item.getId(), item.getName()))
+                .booker(new BookerDto(booker.getId()))
                 .build();
 
         when(bookingService.addBooking(bookerId, newBookingDto)).thenReturn(expectedBookingDto);
@@ -83,6 +93,55 @@ public class BookingControllerTest {
         verify(bookingService, times(1)).addBooking(bookerId, newBookingDto);
     }
 
+    @Test
+    @DisplayName("Пакетное добавление бронирований")
+    void addBookingsTest() throws Exception {
+        long bookerId = 2L;
+        List<NewBookingDto> newBookingDtos = List.of(
+                NewBookingDto.builder().itemId(1L)
+                        .start(LocalDateTime.now().plusDays(1)).end(LocalDateTime.now().plusDays(2)).build(),
+                NewBookingDto.builder().itemId(99L)
+                        .start(LocalDateTime.now().plusDays(1)).end(LocalDateTime.now().plusDays(2)).build());
+        BookingDto bookingDto = BookingDto.builder()
+                .id(1L)
+                .start(newBookingDtos.get(0).getStart())
+                .end(newBookingDtos.get(0).getEnd())
+                .status(Status.WAITING)
+                .item(new ItemShortDto(1L, "item"))
+                .booker(new BookerDto(bookerId))
+                .build();
+
+        when(bookingService.addBookings(bookerId, newBookingDtos)).thenReturn(List.of(
+                BookingBatchResultDto.builder().index(0).booking(bookingDto).build(),
+                BookingBatchResultDto.builder().index(1).error("Item with id 99 not found").build()));
+
+        mvc.perform(post("/bookings/batch")
+                        .content(mapper.writeValueAsString(newBookingDtos))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .header("X-Sharer-User-Id", bookerId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].booking.id", is(1L), Long.class))
+                .andExpect(jsonPath("$[1].error", is("Item with id 99 not found")));
+    }
+
+    @Test
+    void addBookingsRejectsOversizedBatchTest() throws Exception {
+        NewBookingDto newBookingDto = NewBookingDto.builder().itemId(1L)
+                .start(LocalDateTime.now().plusDays(1)).end(LocalDateTime.now().plusDays(2)).build();
+
+        mvc.perform(post("/bookings/batch")
+                        .content(mapper.writeValueAsString(Collections.nCopies(101, newBookingDto)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .header("X-Sharer-User-Id", 2L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+        verify(bookingService, never()).addBookings(anyLong(), any());
+    }
+
     @Test
     @DisplayName("Ошибка добавления бронирования")
     void updateTest() throws Exception {
@@ -100,8 +159,8 @@ public class BookingControllerTest {
                 .start(LocalDateTime.now().plusDays(1))
                 .end(LocalDateTime.now().plusDays(2))
                 .status(Status.APPROVED)
-                .item(item)
-                .booker(owner)
+                .item(new ItemShortDto(item.getId(), item.getName()))
+                .booker(new BookerDto(owner.getId()))
                 .build();
 
         when(bookingService.update(bookingId, ownerId, true)).thenReturn(expectedBookingDto);
@@ -140,8 +199,8 @@ public class BookingControllerTest {
                 .start(LocalDateTime.now().plusDays(1))
                 .end(LocalDateTime.now().plusDays(2))
                 .status(Status.WAITING)
-                .item(item)
-                .booker(owner)
+                .item(new ItemShortDto(item.getId(), item.getName()))
+                .booker(new BookerDto(owner.getId()))
                 .build();
 
         when(bookingService.getBookingById(bookingId, ownerId)).thenReturn(expectedBookingDto);
@@ -182,8 +241,8 @@ public class BookingControllerTest {
                 .start(LocalDateTime.now().plusDays(1))
                 .end(LocalDateTime.now().plusDays(2))
                 .status(Status.WAITING)
-                .item(item)
-                .booker(owner)
+                .item(new ItemShortDto(item.getId(), item.getName()))
+                .booker(new BookerDto(owner.getId()))
                 .build();
 
         when(bookingService.getAllBookingsByUser(bookerId, state, from, size)).thenReturn(List.of(expectedBookingDto));
@@ -225,8 +284,8 @@ public class BookingControllerTest {
                 .start(LocalDateTime.now().plusDays(1))
                 .end(LocalDateTime.now().plusDays(2))
                 .status(Status.WAITING)
-                .item(item)
-                .booker(owner)
+                .item(new ItemShortDto(item.getId(), item.getName()))
+                .booker(new BookerDto(owner.getId()))
                 .build();
 
         when(bookingService.getAllBookingsAllItemsByOwner(ownerId, state, from, size))
@@ -249,4 +308,60 @@ public class BookingControllerTest {
         verify(bookingService, times(1)).getAllBookingsAllItemsByOwner(ownerId, state, from, size);
     }
 
+    @Test
+    @DisplayName("Получение страницы бронирований по курсору")
+    void getBookingPageByUserTest() throws Exception {
+        long bookerId = 2L;
+        String state = "ALL";
+        String cursor = "cursor";
+        long size = 1;
+        BookingDto expectedBookingDto = BookingDto.builder()
+                .id(1L)
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .status(Status.WAITING)
+                .build();
+
+        when(bookingService.getBookingPageByUser(bookerId, state, cursor, size))
+                .thenReturn(new BookingPageDto(List.of(expectedBookingDto), "next"));
+
+        mvc.perform(get("/bookings?state={state}&cursor={cursor}&size={size}", state, cursor, size)
+                        .header("X-Sharer-User-Id", bookerId)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(BookingController.NEXT_CURSOR_HEADER, "next"))
+                .andExpect(jsonPath("$[0].id", is(expectedBookingDto.getId()), Long.class));
+
+        verify(bookingService, never()).getAllBookingsByUser(anyLong(), anyString(), anyLong(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Получение последней страницы бронирований владельца по курсору")
+    void getBookingPageAllItemsByOwnerTest() throws Exception {
+        long ownerId = 1L;
+        String state = "ALL";
+        long size = 10;
+
+        when(bookingService.getBookingPageAllItemsByOwner(ownerId, state, "", size))
+                .thenReturn(new BookingPageDto(List.of(), null));
+
+        mvc.perform(get("/bookings/owner?state={state}&cursor=&size={size}", state, size)
+                        .header("X-Sharer-User-Id", ownerId)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(BookingController.NEXT_CURSOR_HEADER))
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    @DisplayName("Некорректный курсор")
+    void getBookingPageInvalidCursorTest() throws Exception {
+        when(bookingService.getBookingPageByUser(1L, "ALL", "broken", 10))
+                .thenThrow(new InvalidCursorException("Invalid cursor: broken"));
+
+        mvc.perform(get("/bookings?cursor=broken")
+                        .header("X-Sharer-User-Id", 1L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
 }
@@ -6,7 +6,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.json.JsonTest;
 import org.springframework.boot.test.json.JacksonTester;
 import org.springframework.boot.test.json.JsonContent;
+import ru.practicum.shareit.booking.dto.BookerDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.ItemShortDto;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
@@ -35,8 +37,8 @@ public class BookingDtoTest {
                 .start(LocalDateTime.now().plusDays(1))
                 .end(LocalDateTime.now().plusDays(2))
                 .status(Status.WAITING)
-                .item(item)
-                .booker(booker)
+                .item(new ItemShortDto(item.getId(), item.getName()))
+                .booker(new BookerDto(booker.getId()))
                 .build();
 
         JsonContent<BookingDto> result = json.write(bookingDto);
@@ -1,8 +1,10 @@
 package ru.practicum.shareit.booking;
 
 import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.BookerDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingItemDto;
+import ru.practicum.shareit.booking.dto.ItemShortDto;
 import ru.practicum.shareit.booking.dto.NewBookingDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
@@ -40,8 +42,8 @@ public class BookingMapperTest {
                 .start(booking.getStart())
                 .end(booking.getEnd())
                 .status(booking.getStatus())
-                .item(Item.builder().id(item.getId()).name(item.getName()).build())
-                .booker(User.builder().id(booker.getId()).build())
+                .item(new ItemShortDto(item.getId(), item.getName()))
+                .booker(new BookerDto(booker.getId()))
                 .build();
 
         BookingDto actualBookingDto = BookingMapper.toDto(booking);
@@ -143,7 +145,7 @@ public class BookingMapperTest {
                 .id(0L)
                 .start(LocalDateTime.now().plusDays(1))
                 .end(LocalDateTime.now().plusDays(2))
-                .booker(booker)
+                .booker(new BookerDto(booker.getId()))
                 .status(Status.WAITING)
                 .build();
 
@@ -156,7 +158,7 @@ public class BookingMapperTest {
                 .status(Status.WAITING)
                 .build();
 
-        Booking actualBooking = BookingMapper.fromDto(bookingDto, item);
+        Booking actualBooking = BookingMapper.fromDto(bookingDto, item, booker);
 
         assertThat(actualBooking.getId(), equalTo(expectedBooking.getId()));
         assertThat(actualBooking.getStart(), equalTo(expectedBooking.getStart()));
@@ -1,14 +1,21 @@
 package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookerDto;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+import ru.practicum.shareit.booking.dto.ItemShortDto;
 import ru.practicum.shareit.booking.dto.NewBookingDto;
+import ru.practicum.shareit.booking.exeption.BookingOverlapException;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.item.ItemRepository;
@@ -16,11 +23,17 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
+import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @Transactional
 @SpringBootTest(properties = "db.name=admin", webEnvironment = SpringBootTest.WebEnvironment.NONE)
@@ -39,6 +52,9 @@ public class BookingServiceImplIntegrationTest {
     @Autowired
     private final BookingRepository bookingRepository;
 
+    @Autowired
+    private final EntityManager entityManager;
+
     private User user1;
     private User user2;
     private User user3;
@@ -58,12 +74,12 @@ public class BookingServiceImplIntegrationTest {
                 .owner(user1)
                 .build());
         booking1 = bookingRepository.save(Booking.builder()
-                .start(LocalDateTime.now().minusDays(2))
-                .end(LocalDateTime.now().minusDays(1))
+                .start(now().minusDays(2))
+                .end(now().minusDays(1))
                 .item(item).booker(user2).status(Status.APPROVED).build());
         booking2 = bookingRepository.save(Booking.builder()
-                .start(LocalDateTime.now().plusDays(1))
-                .end(LocalDateTime.now().plusDays(2))
+                .start(now().plusDays(1))
+                .end(now().plusDays(2))
                 .item(item).booker(user3).status(Status.WAITING).build());
     }
 
@@ -78,15 +94,15 @@ public class BookingServiceImplIntegrationTest {
     void addBookingTest() {
         NewBookingDto newBookingDto = NewBookingDto.builder()
                 .itemId(item.getId())
-                .start(LocalDateTime.now().plusDays(1))
-                .end(LocalDateTime.now().plusDays(2))
+                .start(now().plusDays(1))
+                .end(now().plusDays(2))
                 .build();
         BookingDto expectedBookingDto = BookingDto.builder()
                 .start(newBookingDto.getStart())
                 .end(newBookingDto.getEnd())
                 .status(Status.WAITING)
-                .item(Item.builder().id(item.getId()).name(item.getName()).build())
-                .booker(User.builder().id(user2.getId()).build())
+                .item(new ItemShortDto(item.getId(), item.getName()))
+                .booker(new BookerDto(user2.getId()))
                 .build();
 
         BookingDto actualBookingDto = bookingService.addBooking(user2.getId(), newBookingDto);
@@ -107,8 +123,8 @@ public class BookingServiceImplIntegrationTest {
                 .start(booking2.getStart())
                 .end(booking2.getEnd())
                 .status(Status.APPROVED)
-                .item(Item.builder().id(item.getId()).name(item.getName()).build())
-                .booker(User.builder().id(user3.getId()).build())
+                .item(new ItemShortDto(item.getId(), item.getName()))
+                .booker(new BookerDto(user3.getId()))
                 .build();
 
         BookingDto actualBookingDto = bookingService.update(
@@ -123,6 +139,36 @@ public class BookingServiceImplIntegrationTest {
         assertThat(actualBookingDto.getBooker().getId(), equalTo(expectedBookingDto.getBooker().getId()));
     }
 
+    @Test
+    void updateRejectsApprovalOverlappingApprovedBooking() {
+        Booking overlapping = bookingRepository.save(Booking.builder()
+                .start(booking2.getStart().plusHours(12))
+                .end(booking2.getEnd().plusDays(1))
+                .item(item).booker(user2).status(Status.WAITING).build());
+        Booking adjacent = bookingRepository.save(Booking.builder()
+                .start(booking2.getEnd())
+                .end(booking2.getEnd().plusDays(1))
+                .item(item).booker(user2).status(Status.WAITING).build());
+        bookingService.update(booking2.getId(), user1.getId(), true);
+
+        assertThrows(BookingOverlapException.class,
+                () -> bookingService.update(overlapping.getId(), user1.getId(), true));
+        assertThat(bookingService.update(adjacent.getId(), user1.getId(), true).getStatus(),
+                equalTo(Status.APPROVED));
+    }
+
+    @Test
+    void addBookingRejectsRangeOfApprovedBooking() {
+        NewBookingDto newBookingDto = NewBookingDto.builder()
+                .itemId(item.getId())
+                .start(booking2.getStart().minusHours(1))
+                .end(booking2.getStart().plusHours(1))
+                .build();
+        bookingService.update(booking2.getId(), user1.getId(), true);
+
+        assertThrows(BookingOverlapException.class, () -> bookingService.addBooking(user2.getId(), newBookingDto));
+    }
+
     @Test
     void getBookingByIdTest() {
         BookingDto expectedBookingDto = BookingDto.builder()
@@ -130,8 +176,8 @@ public class BookingServiceImplIntegrationTest {
                 .start(booking1.getStart())
                 .end(booking1.getEnd())
                 .status(booking1.getStatus())
-                .item(Item.builder().id(item.getId()).name(item.getName()).build())
-                .booker(User.builder().id(user2.getId()).build())
+                .item(new ItemShortDto(item.getId(), item.getName()))
+                .booker(new BookerDto(user2.getId()))
                 .build();
 
         BookingDto actualBookingDto = bookingService.getBookingById(booking1.getId(), user2.getId());
@@ -155,8 +201,8 @@ public class BookingServiceImplIntegrationTest {
                 .start(booking1.getStart())
                 .end(booking1.getEnd())
                 .status(booking1.getStatus())
-                .item(Item.builder().id(item.getId()).name(item.getName()).build())
-                .booker(User.builder().id(user2.getId()).build())
+                .item(new ItemShortDto(item.getId(), item.getName()))
+                .booker(new BookerDto(user2.getId()))
                 .build();
 
         List<BookingDto> actualList = bookingService.getAllBookingsByUser(user2.getId(), state, from, size);
@@ -181,8 +227,8 @@ public class BookingServiceImplIntegrationTest {
                 .start(booking1.getStart())
                 .end(booking1.getEnd())
                 .status(booking1.getStatus())
-                .item(Item.builder().id(item.getId()).name(item.getName()).build())
-                .booker(User.builder().id(user2.getId()).build())
+                .item(new ItemShortDto(item.getId(), item.getName()))
+                .booker(new BookerDto(user2.getId()))
                 .build();
 
         List<BookingDto> actualList = bookingService.getAllBookingsByUser(user2.getId(), state, from, size);
@@ -204,16 +250,16 @@ public class BookingServiceImplIntegrationTest {
         long from = 0;
         long size = 10;
         Booking booking = bookingRepository.save(Booking.builder()
-                .start(LocalDateTime.now().plusDays(1))
-                .end(LocalDateTime.now().plusDays(2))
+                .start(now().plusDays(1))
+                .end(now().plusDays(2))
                 .item(item).booker(user2).status(Status.WAITING).build());
         BookingDto expectedBookingDto = BookingDto.builder()
                 .id(booking.getId())
                 .start(booking.getStart())
                 .end(booking.getEnd())
                 .status(booking.getStatus())
-                .item(Item.builder().id(item.getId()).name(item.getName()).build())
-                .booker(User.builder().id(user2.getId()).build())
+                .item(new ItemShortDto(item.getId(), item.getName()))
+                .booker(new BookerDto(user2.getId()))
                 .build();
 
         List<BookingDto> actualList = bookingService.getAllBookingsByUser(user2.getId(), state, from, size);
@@ -234,16 +280,16 @@ public class BookingServiceImplIntegrationTest {
         long from = 0;
         long size = 10;
         Booking booking = bookingRepository.save(Booking.builder()
-                .start(LocalDateTime.now().minusDays(1))
-                .end(LocalDateTime.now().plusDays(1))
+                .start(now().minusDays(1))
+                .end(now().plusDays(1))
                 .item(item).booker(user2).status(Status.APPROVED).build());
         BookingDto expectedBookingDto = BookingDto.builder()
                 .id(booking.getId())
                 .start(booking.getStart())
                 .end(booking.getEnd())
                 .status(booking.getStatus())
-                .item(Item.builder().id(item.getId()).name(item.getName()).build())
-                .booker(User.builder().id(user2.getId()).build())
+                .item(new ItemShortDto(item.getId(), item.getName()))
+                .booker(new BookerDto(user2.getId()))
                 .build();
 
         List<BookingDto> actualList = bookingService.getAllBookingsByUser(user2.getId(), state, from, size);
@@ -264,16 +310,16 @@ public class BookingServiceImplIntegrationTest {
         long from = 0;
         long size = 10;
         Booking booking = bookingRepository.save(Booking.builder()
-                .start(LocalDateTime.now().minusDays(2))
-                .end(LocalDateTime.now().minusDays(1))
+                .start(now().minusDays(2))
+                .end(now().minusDays(1))
                 .item(item).booker(user2).status(Status.WAITING).build());
         BookingDto expectedBookingDto = BookingDto.builder()
                 .id(booking.getId())
                 .start(booking.getStart())
                 .end(booking.getEnd())
                 .status(booking.getStatus())
-                .item(Item.builder().id(item.getId()).name(item.getName()).build())
-                .booker(User.builder().id(user2.getId()).build())
+                .item(new ItemShortDto(item.getId(), item.getName()))
+                .booker(new BookerDto(user2.getId()))
                 .build();
 
         List<BookingDto> actualList = bookingService.getAllBookingsByUser(user2.getId(), state, from, size);
@@ -294,16 +340,16 @@ public class BookingServiceImplIntegrationTest {
         long from = 0;
         long size = 10;
         Booking booking = bookingRepository.save(Booking.builder()
-                .start(LocalDateTime.now().minusDays(2))
-                .end(LocalDateTime.now().minusDays(1))
+                .start(now().minusDays(2))
+                .end(now().minusDays(1))
                 .item(item).booker(user2).status(Status.REJECTED).build());
         BookingDto expectedBookingDto = BookingDto.builder()
                 .id(booking.getId())
                 .start(booking.getStart())
                 .end(booking.getEnd())
                 .status(booking.getStatus())
-                .item(Item.builder().id(item.getId()).name(item.getName()).build())
-                .booker(User.builder().id(user2.getId()).build())
+                .item(new ItemShortDto(item.getId(), item.getName()))
+                .booker(new BookerDto(user2.getId()))
                 .build();
 
         List<BookingDto> actualList = bookingService.getAllBookingsByUser(user2.getId(), state, from, size);
@@ -328,16 +374,16 @@ public class BookingServiceImplIntegrationTest {
                 .start(booking1.getStart())
                 .end(booking1.getEnd())
                 .status(booking1.getStatus())
-                .item(Item.builder().id(item.getId()).name(item.getName()).build())
-                .booker(User.builder().id(user2.getId()).build())
+                .item(new ItemShortDto(item.getId(), item.getName()))
+                .booker(new BookerDto(user2.getId()))
                 .build();
         BookingDto expectedBookingDto2 = BookingDto.builder()
                 .id(booking2.getId())
                 .start(booking2.getStart())
                 .end(booking2.getEnd())
                 .status(booking2.getStatus())
-                .item(Item.builder().id(item.getId()).name(item.getName()).build())
-                .booker(User.builder().id(user3.getId()).build())
+                .item(new ItemShortDto(item.getId(), item.getName()))
+                .booker(new BookerDto(user3.getId()))
                 .build();
 
         List<BookingDto> actualList = bookingService.getAllBookingsAllItemsByOwner(user1.getId(), state, from, size);
@@ -372,8 +418,8 @@ public class BookingServiceImplIntegrationTest {
                 .start(booking1.getStart())
                 .end(booking1.getEnd())
                 .status(booking1.getStatus())
-                .item(Item.builder().id(item.getId()).name(item.getName()).build())
-                .booker(User.builder().id(user2.getId()).build())
+                .item(new ItemShortDto(item.getId(), item.getName()))
+                .booker(new BookerDto(user2.getId()))
                 .build();
 
         List<BookingDto> actualList = bookingService.getAllBookingsAllItemsByOwner(user1.getId(), state, from, size);
@@ -398,8 +444,8 @@ public class BookingServiceImplIntegrationTest {
                 .start(booking2.getStart())
                 .end(booking2.getEnd())
                 .status(booking2.getStatus())
-                .item(Item.builder().id(item.getId()).name(item.getName()).build())
-                .booker(User.builder().id(user3.getId()).build())
+                .item(new ItemShortDto(item.getId(), item.getName()))
+                .booker(new BookerDto(user3.getId()))
                 .build();
 
         List<BookingDto> actualList = bookingService.getAllBookingsAllItemsByOwner(user1.getId(), state, from, size);
@@ -420,16 +466,16 @@ public class BookingServiceImplIntegrationTest {
         long from = 0;
         long size = 10;
         Booking booking = bookingRepository.save(Booking.builder()
-                .start(LocalDateTime.now().minusDays(1))
-                .end(LocalDateTime.now().plusDays(1))
+                .start(now().minusDays(1))
+                .end(now().plusDays(1))
                 .item(item).booker(user2).status(Status.APPROVED).build());
         BookingDto expectedBookingDto = BookingDto.builder()
                 .id(booking.getId())
                 .start(booking.getStart())
                 .end(booking.getEnd())
                 .status(booking.getStatus())
-                .item(Item.builder().id(item.getId()).name(item.getName()).build())
-                .booker(User.builder().id(user2.getId()).build())
+                .item(new ItemShortDto(item.getId(), item.getName()))
+                .booker(new BookerDto(user2.getId()))
                 .build();
 
         List<BookingDto> actualList = bookingService.getAllBookingsAllItemsByOwner(user1.getId(), state, from, size);
@@ -454,14 +500,8 @@ public class BookingServiceImplIntegrationTest {
                 .start(booking2.getStart())
                 .end(booking2.getEnd())
                 .status(booking2.getStatus())
-                .item(Item.builder()
-                        .id(booking2.getItem().getId())
-                        .name(booking2.getItem().getName())
-                        .description(booking2.getItem().getDescription())
-                        .owner(booking2.getItem().getOwner())
-                        .available(booking2.getItem().getAvailable())
-                        .build())
-                .booker(User.builder().id(booking2.getBooker().getId()).build())
+                .item(new ItemShortDto(booking2.getItem().getId(), booking2.getItem().getName()))
+                .booker(new BookerDto(booking2.getBooker().getId()))
                 .build();
 
         List<BookingDto> actualList = bookingService.getAllBookingsAllItemsByOwner(user1.getId(), state, from, size);
@@ -474,11 +514,6 @@ public class BookingServiceImplIntegrationTest {
         assertThat(actualBookingDto.getStatus(), equalTo(expectedBookingDto.getStatus()));
         assertThat(actualBookingDto.getItem().getId(), equalTo(expectedBookingDto.getItem().getId()));
         assertThat(actualBookingDto.getItem().getName(), equalTo(expectedBookingDto.getItem().getName()));
-        assertThat(actualBookingDto.getItem().getDescription(), equalTo(expectedBookingDto.getItem().getDescription()));
-        assertThat(actualBookingDto.getItem().getOwner().getId(), equalTo(expectedBookingDto.getItem().getOwner().getId()));
-        assertThat(actualBookingDto.getItem().getOwner().getName(), equalTo(expectedBookingDto.getItem().getOwner().getName()));
-        assertThat(actualBookingDto.getItem().getOwner().getEmail(), equalTo(expectedBookingDto.getItem().getOwner().getEmail()));
-        assertThat(actualBookingDto.getItem().getAvailable(), equalTo(expectedBookingDto.getItem().getAvailable()));
         assertThat(actualBookingDto.getBooker().getId(), equalTo(expectedBookingDto.getBooker().getId()));
     }
 
@@ -488,16 +523,16 @@ public class BookingServiceImplIntegrationTest {
         long from = 0;
         long size = 10;
         Booking booking = bookingRepository.save(Booking.builder()
-                .start(LocalDateTime.now().minusDays(2))
-                .end(LocalDateTime.now().minusDays(1))
+                .start(now().minusDays(2))
+                .end(now().minusDays(1))
                 .item(item).booker(user2).status(Status.REJECTED).build());
         BookingDto expectedBookingDto = BookingDto.builder()
                 .id(booking.getId())
                 .start(booking.getStart())
                 .end(booking.getEnd())
                 .status(booking.getStatus())
-                .item(Item.builder().id(item.getId()).name(item.getName()).build())
-                .booker(User.builder().id(user2.getId()).build())
+                .item(new ItemShortDto(item.getId(), item.getName()))
+                .booker(new BookerDto(user2.getId()))
                 .build();
 
         List<BookingDto> actualList = bookingService.getAllBookingsAllItemsByOwner(user1.getId(), state, from, size);
@@ -511,4 +546,115 @@ public class BookingServiceImplIntegrationTest {
         assertThat(actualBookingDto.getItem().getName(), equalTo(expectedBookingDto.getItem().getName()));
         assertThat(actualBookingDto.getBooker().getId(), equalTo(expectedBookingDto.getBooker().getId()));
     }
+
+    @Test
+    void getBookingPageByOwnerWalksAllBookingsByCursor() {
+        LocalDateTime start = booking2.getStart().truncatedTo(ChronoUnit.SECONDS);
+        booking2.setStart(start);
+        bookingRepository.save(booking2);
+        Booking booking3 = bookingRepository.save(Booking.builder()
+                .start(start)
+                .end(booking2.getEnd())
+                .item(item).booker(user2).status(Status.REJECTED).build());
+
+        BookingPageDto firstPage = bookingService.getBookingPageAllItemsByOwner(user1.getId(), "ALL", "", 2);
+        BookingPageDto secondPage = bookingService.getBookingPageAllItemsByOwner(
+                user1.getId(), "ALL", firstPage.getNextCursor(), 2);
+
+        assertThat(firstPage.getBookings().stream().map(BookingDto::getId).collect(Collectors.toList()),
+                equalTo(List.of(booking3.getId(), booking2.getId())));
+        assertThat(secondPage.getBookings().stream().map(BookingDto::getId).collect(Collectors.toList()),
+                equalTo(List.of(booking1.getId())));
+        assertThat(secondPage.getNextCursor(), nullValue());
+    }
+
+    @Test
+    void getBookingPageByUserStateFuture() {
+        BookingPageDto page = bookingService.getBookingPageByUser(user3.getId(), "FUTURE", "", 10);
+
+        assertThat(page.getBookings().stream().map(BookingDto::getId).collect(Collectors.toList()),
+                equalTo(List.of(booking2.getId())));
+        assertThat(page.getNextCursor(), nullValue());
+    }
+
+    @Test
+    void getAllBookingsAllItemsByOwnerSelectsPageInOneStatement() {
+        long statements = countStatements(() -> bookingService.getAllBookingsAllItemsByOwner(user1.getId(), "ALL", 0, 10));
+
+        assertThat(statements, equalTo(2L));
+    }
+
+    @Test
+    void getAllBookingsByUserSelectsPageInOneStatement() {
+        long statements = countStatements(() -> bookingService.getAllBookingsByUser(user2.getId(), "ALL", 0, 10));
+
+        assertThat(statements, equalTo(2L));
+    }
+
+    @Test
+    void addBookingsSavesValidEntriesAndReportsFailures() {
+        List<NewBookingDto> bookingDtos = List.of(
+                NewBookingDto.builder().itemId(item.getId()).start(now().plusDays(3)).end(now().plusDays(4)).build(),
+                NewBookingDto.builder().itemId(item.getId()).start(now().minusDays(1)).end(now().plusDays(1)).build(),
+                NewBookingDto.builder().itemId(-1L).start(now().plusDays(3)).end(now().plusDays(4)).build(),
+                NewBookingDto.builder().itemId(item.getId()).start(now().plusDays(5)).end(now().plusDays(6)).build(),
+                NewBookingDto.builder().itemId(item.getId()).start(now().plusDays(4).minusHours(1))
+                        .end(now().plusDays(5).plusHours(1)).build());
+        List<BookingBatchResultDto> results = new ArrayList<>();
+
+        long statements = countStatements(() -> {
+            results.addAll(bookingService.addBookings(user2.getId(), bookingDtos));
+            entityManager.flush();
+        });
+
+        assertThat(results.stream().map(BookingBatchResultDto::getIndex).collect(Collectors.toList()),
+                equalTo(List.of(0, 1, 2, 3, 4)));
+        assertThat(results.get(0).getBooking().getStatus(), equalTo(Status.WAITING));
+        assertThat(results.get(1).getError(), equalTo("Booking start must not be in the past"));
+        assertThat(results.get(2).getError(), equalTo("Item with id -1 not found"));
+        assertThat(results.get(3).getBooking().getStart(), equalTo(bookingDtos.get(3).getStart()));
+        assertThat(bookingRepository.findById(results.get(3).getBooking().getId()).isPresent(), equalTo(true));
+        // entries of one batch are checked against approved bookings only, as single bookings are
+        assertThat(results.get(4).getBooking().getStatus(), equalTo(Status.WAITING));
+        // booker, items, the approved bookings around and within the batch span and one batched insert; ids
+        // come from the block allocated in fillDataBase
+        assertThat(statements, equalTo(5L));
+    }
+
+    @Test
+    void addBookingsRejectsEntriesOverlappingApprovedBookings() {
+        bookingService.update(booking2.getId(), user1.getId(), true);
+        List<NewBookingDto> bookingDtos = List.of(
+                NewBookingDto.builder().itemId(item.getId()).start(booking2.getStart().plusHours(1))
+                        .end(booking2.getEnd().plusHours(1)).build(),
+                NewBookingDto.builder().itemId(item.getId()).start(booking2.getEnd())
+                        .end(booking2.getEnd().plusDays(1)).build());
+
+        List<BookingBatchResultDto> results = bookingService.addBookings(user2.getId(), bookingDtos);
+
+        assertThat(results.get(0).getBooking(), nullValue());
+        assertThat(results.get(1).getBooking().getStatus(), equalTo(Status.WAITING));
+        NewBookingDto endingInside = NewBookingDto.builder().itemId(item.getId())
+                .start(booking2.getStart().minusHours(1)).end(booking2.getStart().plusHours(1)).build();
+        assertThat(bookingService.addBookings(user2.getId(), List.of(endingInside)).get(0).getBooking(),
+                nullValue());
+    }
+
+    private long countStatements(Runnable action) {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        action.run();
+        long count = statistics.getPrepareStatementCount();
+        statistics.setStatisticsEnabled(false);
+        return count;
+    }
+
+    // truncated to the precision of the timestamp columns, so values read back by queries compare equal
+    private static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
 }
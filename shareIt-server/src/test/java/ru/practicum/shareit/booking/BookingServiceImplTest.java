@@ -1,19 +1,29 @@
 package ru.practicum.shareit.booking;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.booking.dto.BookerDto;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.booking.dto.ItemShortDto;
 import ru.practicum.shareit.booking.dto.NewBookingDto;
 import ru.practicum.shareit.booking.exeption.AccessItemDeniedException;
+import ru.practicum.shareit.booking.exeption.BookingOverlapException;
 import ru.practicum.shareit.booking.exeption.NoWaitingStatusException;
 import ru.practicum.shareit.booking.exeption.NotBookingRelationException;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.cache.AvailabilityCache;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.exception.NotFoundDataException;
 import ru.practicum.shareit.item.model.Item;
@@ -23,11 +33,13 @@ import ru.practicum.shareit.user.UserRepository;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -39,6 +51,12 @@ public class BookingServiceImplTest {
     ItemRepository itemRepository;
     @Mock
     BookingRepository bookingRepository;
+    @Mock
+    AvailabilityCache availabilityCache;
+    @Mock
+    PlatformTransactionManager transactionManager;
+    @Spy
+    SimpleMeterRegistry meterRegistry;
 
     @InjectMocks
     BookingServiceImpl bookingService;
@@ -74,8 +92,8 @@ public class BookingServiceImplTest {
                 .start(newBookingDto.getStart())
                 .end(newBookingDto.getEnd())
                 .status(Status.WAITING)
-                .item(item)
-                .booker(booker)
+                .item(new ItemShortDto(item.getId(), item.getName()))
+                .booker(new BookerDto(booker.getId()))
                 .build();
 
         when(userRepository.findById(bookerId)).thenReturn(Optional.of(booker));
@@ -170,6 +188,48 @@ public class BookingServiceImplTest {
         assertThrows(NotFoundDataException.class, () -> bookingService.addBooking(bookerId, newBookingDto));
     }
 
+    @Test
+    void addBookings_whenSomeEntriesInvalid_thenValidOnesSavedInOneCall() {
+        long ownerId = 1L;
+        long bookerId = 2L;
+        User owner = User.builder().id(ownerId).name("user1").email("user1@yandex.ru").build();
+        User booker = User.builder().id(bookerId).name("user2").email("user2@yandex.ru").build();
+        Item available = Item.builder().id(1L).name("item1").available(true).owner(owner).build();
+        Item unavailable = Item.builder().id(2L).name("item2").available(false).owner(owner).build();
+        List<NewBookingDto> newBookingDtos = List.of(
+                NewBookingDto.builder().itemId(1L)
+                        .start(LocalDateTime.now().plusDays(1)).end(LocalDateTime.now().plusDays(2)).build(),
+                NewBookingDto.builder().itemId(2L)
+                        .start(LocalDateTime.now().plusDays(1)).end(LocalDateTime.now().plusDays(2)).build(),
+                NewBookingDto.builder().itemId(1L)
+                        .start(LocalDateTime.now().plusDays(2)).end(LocalDateTime.now().plusDays(1)).build());
+        Booking saved = Booking.builder()
+                .id(1L)
+                .start(newBookingDtos.get(0).getStart())
+                .end(newBookingDtos.get(0).getEnd())
+                .item(available)
+                .booker(booker)
+                .status(Status.WAITING).build();
+
+        when(userRepository.findById(bookerId)).thenReturn(Optional.of(booker));
+        when(itemRepository.findAllById(Set.of(1L, 2L))).thenReturn(List.of(available, unavailable));
+        when(bookingRepository.saveAll(anyList())).thenReturn(List.of(saved));
+
+        List<BookingBatchResultDto> results = bookingService.addBookings(bookerId, newBookingDtos);
+
+        assertThat(results.get(0).getBooking().getId(), equalTo(1L));
+        assertThat(results.get(1).getError(), equalTo("Item not available"));
+        assertThat(results.get(2).getError(), equalTo("Booking start must be before its end"));
+        verify(bookingRepository, never()).save(any(Booking.class));
+    }
+
+    @Test
+    void addBookingsNotFoundUserException() {
+        when(userRepository.findById(2L)).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundDataException.class, () -> bookingService.addBookings(2L, List.of()));
+    }
+
     @Test
     void approveOrRejectBooking_whenInputValid_thenBookingUpdated() {
         long ownerId = 1L;
@@ -203,8 +263,8 @@ public class BookingServiceImplTest {
                 .start(booking.getStart())
                 .end(booking.getEnd())
                 .status(Status.APPROVED)
-                .item(item)
-                .booker(booker)
+                .item(new ItemShortDto(item.getId(), item.getName()))
+                .booker(new BookerDto(booker.getId()))
                 .build();
 
         when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
@@ -246,6 +306,71 @@ public class BookingServiceImplTest {
                 () -> bookingService.update(bookingId, bookerId, true));
     }
 
+    @Test
+    void approveOrRejectBooking_whenApprovedBookingOverlaps_thenExceptionThrown() {
+        long ownerId = 1L;
+        long bookerId = 2L;
+        long itemId = 1L;
+        long bookingId = 1L;
+        User owner = User.builder().id(ownerId).name("user1").email("user1@yandex.ru").build();
+        User booker = User.builder().id(bookerId).name("user2").email("user2@yandex.ru").build();
+        Item item = Item.builder()
+                .id(itemId)
+                .name("item")
+                .description("description")
+                .available(true)
+                .owner(owner).build();
+        Booking booking = Booking.builder()
+                .id(bookingId)
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .item(item)
+                .booker(booker)
+                .status(Status.WAITING).build();
+
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+        when(userRepository.findById(ownerId)).thenReturn(Optional.of(owner));
+        when(itemRepository.findByBookingIdForUpdate(bookingId)).thenReturn(Optional.of(item));
+        when(bookingRepository.existsApprovedOverlap(itemId, booking.getStart(), booking.getEnd())).thenReturn(true);
+
+        assertThrows(BookingOverlapException.class,
+                () -> bookingService.update(bookingId, ownerId, true));
+        verify(bookingRepository, never()).save(any(Booking.class));
+    }
+
+    @Test
+    void approveOrRejectBooking_whenConcurrentApprovalWins_thenRetriedAgainstCommittedState() {
+        long ownerId = 1L;
+        long bookerId = 2L;
+        long itemId = 1L;
+        long bookingId = 1L;
+        User owner = User.builder().id(ownerId).name("user1").email("user1@yandex.ru").build();
+        User booker = User.builder().id(bookerId).name("user2").email("user2@yandex.ru").build();
+        Item item = Item.builder()
+                .id(itemId)
+                .name("item")
+                .description("description")
+                .available(true)
+                .owner(owner).build();
+        Booking booking = Booking.builder()
+                .id(bookingId)
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .item(item)
+                .booker(booker)
+                .status(Status.WAITING).build();
+
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+        when(userRepository.findById(ownerId)).thenReturn(Optional.of(owner));
+        when(bookingRepository.save(booking)).thenReturn(booking);
+        doThrow(new ObjectOptimisticLockingFailureException(Booking.class, bookingId))
+                .when(transactionManager).commit(any());
+
+        assertThrows(NoWaitingStatusException.class, () -> bookingService.update(bookingId, ownerId, false));
+        assertThat(meterRegistry.counter("booking.approval.conflicts").count(), equalTo(1.0));
+        assertThat(meterRegistry.counter("booking.approval.retries").count(), equalTo(1.0));
+    }
+
     @Test
     void approveOrRejectBooking_whenStatusNotWaiting_thenExceptionThrown() {
         long ownerId = 1L;
@@ -304,13 +429,14 @@ public class BookingServiceImplTest {
                 .start(booking.getStart())
                 .end(booking.getEnd())
                 .status(Status.WAITING)
-                .item(item)
-                .booker(booker)
+                .item(new ItemShortDto(item.getId(), item.getName()))
+                .booker(new BookerDto(booker.getId()))
                 .build();
 
         when(userRepository.findById(bookerId)).thenReturn(Optional.of(booker));
         when(bookingRepository.findAllByBookerIdOrderByStartDesc(eq(bookerId), any(Pageable.class)))
-                .thenReturn(List.of(booking));
+                .thenReturn(List.of(new BookingView(bookingId, booking.getStart(), booking.getEnd(), Status.WAITING,
+                        itemId, item.getName(), bookerId)));
 
         List<BookingDto> actualList = bookingService.getAllBookingsByUser(bookerId, state, from, size);
 
@@ -358,13 +484,14 @@ public class BookingServiceImplTest {
                 .start(booking.getStart())
                 .end(booking.getEnd())
                 .status(Status.WAITING)
-                .item(item)
-                .booker(booker)
+                .item(new ItemShortDto(item.getId(), item.getName()))
+                .booker(new BookerDto(booker.getId()))
                 .build();
 
         when(userRepository.findById(ownerId)).thenReturn(Optional.of(owner));
         when(bookingRepository.findAllByItemOwnerIdOrderByStartDesc(eq(ownerId), any(PageRequest.class)))
-                .thenReturn(List.of(booking));
+                .thenReturn(List.of(new BookingView(bookingId, booking.getStart(), booking.getEnd(), Status.WAITING,
+                        itemId, item.getName(), bookerId)));
 
         List<BookingDto> actualList = bookingService.getAllBookingsAllItemsByOwner(ownerId, state, from, size);
 
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.cache;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.IntervalDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+class AvailabilityCacheTest {
+    private static final LocalDateTime FROM = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private final AvailabilityCache availabilityCache = new AvailabilityCache(100, Duration.ofMinutes(1));
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void loadsOncePerItemForLaterRanges() {
+        load(1, FROM);
+        load(1, FROM.plusDays(1));
+        load(1, FROM.minusDays(1));
+        load(1, FROM);
+
+        assertThat(loads.get(), equalTo(2));
+    }
+
+    @Test
+    void evictDropsOnlyThatItem() {
+        load(1, FROM);
+        load(2, FROM);
+
+        availabilityCache.evict(1);
+        load(1, FROM);
+        load(2, FROM);
+
+        assertThat(loads.get(), equalTo(3));
+    }
+
+    @Test
+    void loadOverlappingEvictionIsNotKept() {
+        availabilityCache.get(1, FROM, since -> {
+            loads.incrementAndGet();
+            availabilityCache.evict(1);
+            return List.of();
+        });
+
+        load(1, FROM);
+
+        assertThat(loads.get(), equalTo(2));
+    }
+
+    private void load(long itemId, LocalDateTime from) {
+        availabilityCache.get(itemId, from, since -> {
+            loads.incrementAndGet();
+            return List.of(new IntervalDto(since, since.plusDays(1)));
+        });
+    }
+}
@@ -0,0 +1,120 @@
+package ru.practicum.shareit.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.exception.NotFoundDataException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class EntityCacheIntegrationTest {
+
+    @Autowired
+    private final UserService userService;
+
+    @Autowired
+    private final ItemService itemService;
+
+    @Autowired
+    private final UserRepository userRepository;
+
+    @Autowired
+    private final ItemRepository itemRepository;
+
+    @Autowired
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    private final EntityManagerFactory entityManagerFactory;
+
+    private User user;
+    private Item item;
+
+    @BeforeEach
+    void fillDataBase() {
+        user = userRepository.save(User.builder().name("user").email("cached@yandex.ru").build());
+        item = itemRepository.save(Item.builder()
+                .name("item")
+                .description("description")
+                .available(true)
+                .owner(user)
+                .build());
+    }
+
+    @AfterEach
+    void clearDataBase() {
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void repeatedUserLookupsHitCacheTest() {
+        entityManagerFactory.getCache().evict(User.class);
+        double missesBefore = cacheGets(EntityCacheConfig.USERS_REGION, "miss");
+        double hitsBefore = cacheGets(EntityCacheConfig.USERS_REGION, "hit");
+
+        userService.get(user.getId());
+
+        assertThat(cacheGets(EntityCacheConfig.USERS_REGION, "miss"), greaterThan(missesBefore));
+        assertThat(cacheGets(EntityCacheConfig.USERS_REGION, "hit"), equalTo(hitsBefore));
+        assertThat(entityManagerFactory.getCache().contains(User.class, user.getId()), equalTo(true));
+
+        userService.get(user.getId());
+
+        assertThat(cacheGets(EntityCacheConfig.USERS_REGION, "hit"), equalTo(hitsBefore + 1));
+    }
+
+    @Test
+    void userUpdateAndDeleteInvalidateCacheTest() {
+        userService.get(user.getId());
+
+        userService.update(user.getId(), UserDto.builder().name("updated").build());
+        double hitsBefore = cacheGets(EntityCacheConfig.USERS_REGION, "hit");
+
+        assertThat(userService.get(user.getId()).getName(), equalTo("updated"));
+        assertThat(cacheGets(EntityCacheConfig.USERS_REGION, "hit"), equalTo(hitsBefore + 1));
+
+        itemRepository.deleteAll();
+        userService.delete(user.getId());
+        assertThrows(NotFoundDataException.class, () -> userService.get(user.getId()));
+    }
+
+    @Test
+    void itemUpdateInvalidatesCacheTest() {
+        itemService.getItem(user.getId(), item.getId());
+        assertThat(entityManagerFactory.getCache().contains(Item.class, item.getId()), equalTo(true));
+
+        itemService.updateItem(user.getId(), item.getId(), ItemDto.builder().name("updated").build());
+        double hitsBefore = cacheGets(EntityCacheConfig.ITEMS_REGION, "hit");
+
+        assertThat(itemService.getItem(user.getId(), item.getId()).getName(), equalTo("updated"));
+        assertThat(cacheGets(EntityCacheConfig.ITEMS_REGION, "hit"), greaterThan(hitsBefore));
+    }
+
+    private double cacheGets(String region, String result) {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", region)
+                .tag("result", result)
+                .functionCounter()
+                .count();
+    }
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.execution;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+
+import java.util.concurrent.ExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExecutionModeConfigTest {
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(ExecutionModeConfig.class);
+
+    @Test
+    void platformModeKeepsTomcatThreadPool() {
+        contextRunner.withPropertyValues("shareit.execution-mode=platform")
+                .run(context -> assertThat(context).doesNotHaveBean(TomcatProtocolHandlerCustomizer.class));
+    }
+
+    @Test
+    void virtualModeRunsTomcatOnVirtualThreads() {
+        contextRunner.withPropertyValues("shareit.execution-mode=virtual").run(context -> {
+            assertThat(context).hasSingleBean(TomcatProtocolHandlerCustomizer.class);
+            Thread thread = context.getBean(ExecutorService.class).submit(Thread::currentThread).get();
+            assertThat(thread.isVirtual()).isTrue();
+        });
+    }
+}
@@ -10,6 +10,8 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.comment.dto.CommentDto;
+import ru.practicum.shareit.item.dto.IntervalDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.exception.NoFinishBookingForCommentException;
 import ru.practicum.shareit.item.exception.NotFoundDataException;
@@ -18,10 +20,12 @@ import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.is;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -210,7 +214,7 @@ public class ItemControllerTest {
     void getAllAvailableItemsWithTextTest() throws Exception {
         String searchString = "script";
 
-        when(itemService.searchItemsByKeyword(searchString))
+        when(itemService.searchItemsByKeyword(searchString, 0, 10))
                 .thenReturn(List.of(itemDtoOut));
 
         mvc.perform(get("/items/search?text={text}", searchString)
@@ -221,7 +225,35 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$[0].description", is(itemDtoOut.getDescription())))
                 .andExpect(jsonPath("$[0].available", is(itemDtoOut.getAvailable())));
 
-        verify(itemService).searchItemsByKeyword(searchString);
+        verify(itemService).searchItemsByKeyword(searchString, 0, 10);
+    }
+
+    @Test
+    void searchItemsWithTooLargeSizeTest() throws Exception {
+        mvc.perform(get("/items/search?text=script&size=101")
+                    .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verify(itemService, never()).searchItemsByKeyword(any(), anyLong(), anyLong());
+    }
+
+    @Test
+    void streamItemsByKeywordTest() throws Exception {
+        String searchString = "script";
+
+        doAnswer(invocation -> {
+            Consumer<ItemDto> consumer = invocation.getArgument(1);
+            consumer.accept(itemDtoOut);
+            consumer.accept(itemDtoUpdatedOut);
+            return null;
+        }).when(itemService).streamItemsByKeyword(eq(searchString), any());
+
+        mvc.perform(get("/items/search/stream?text={text}", searchString)
+                    .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(mapper.writeValueAsString(itemDtoOut) + "\n"
+                        + mapper.writeValueAsString(itemDtoUpdatedOut) + "\n"));
     }
 
     @Test
@@ -298,6 +330,32 @@ public class ItemControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void getAvailabilityTest() throws Exception {
+        long userId = 1L;
+        long itemId = 1L;
+        LocalDateTime from = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 1, 3, 0, 0);
+        ItemAvailabilityDto availability = ItemAvailabilityDto.builder()
+                .itemId(itemId)
+                .from(from)
+                .to(to)
+                .busy(List.of(new IntervalDto(from, from.plusDays(1))))
+                .free(List.of(new IntervalDto(from.plusDays(1), to)))
+                .build();
+
+        when(itemService.getAvailability(userId, itemId, from, to)).thenReturn(availability);
+
+        mvc.perform(get("/items/{itemId}/availability", itemId)
+                        .param("from", "2024-01-01T00:00:00")
+                        .param("to", "2024-01-03T00:00:00")
+                        .header("X-Sharer-User-Id", userId)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.busy[0].end", is("2024-01-02T00:00:00")))
+                .andExpect(jsonPath("$.free[0].start", is("2024-01-02T00:00:00")));
+    }
+
     @Test
     @DisplayName("Некорректное описание элемента")
     void invalidDescriptionTest() throws Exception {
@@ -3,6 +3,8 @@ package ru.practicum.shareit.item;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
@@ -49,10 +51,60 @@ public class ItemRepositoryTest {
         itemRepository.save(item1);
         itemRepository.save(item2);
         itemRepository.save(item3);
-        List<Item> items = itemRepository.search("TEM1");
+        List<Item> items = itemRepository.search("TEM1", Pageable.unpaged());
         assertThat(items, hasSize(2));
         assertThat(items.get(0).getName(), equalTo("item1"));
         assertThat(items.get(1).getName(), equalTo("item2"));
     }
 
+    @Test
+    void searchRanksNameMatchesFirstAndSkipsUnavailableTest() {
+        User user = userRepository.save(User.builder()
+                .name("user")
+                .email("user@yandex.ru")
+                .build());
+        itemRepository.save(Item.builder()
+                .name("hammer")
+                .description("heavy drill companion")
+                .available(true)
+                .owner(user)
+                .build());
+        itemRepository.save(Item.builder()
+                .name("Drill")
+                .description("cordless")
+                .available(true)
+                .owner(user)
+                .build());
+        itemRepository.save(Item.builder()
+                .name("old drill")
+                .description("broken")
+                .available(false)
+                .owner(user)
+                .build());
+        List<Item> items = itemRepository.search("drill", Pageable.unpaged());
+        assertThat(items, hasSize(2));
+        assertThat(items.get(0).getName(), equalTo("Drill"));
+        assertThat(items.get(1).getName(), equalTo("hammer"));
+    }
+
+    @Test
+    void searchPageTest() {
+        User user = userRepository.save(User.builder()
+                .name("user")
+                .email("user@yandex.ru")
+                .build());
+        for (int i = 0; i < 5; i++) {
+            itemRepository.save(Item.builder()
+                    .name("item" + i)
+                    .description("description")
+                    .available(true)
+                    .owner(user)
+                    .build());
+        }
+        List<Item> items = itemRepository.search("item", PageRequest.of(1, 2));
+        assertThat(items, hasSize(2));
+        assertThat(items.get(0).getName(), equalTo("item2"));
+        assertThat(items.get(1).getName(), equalTo("item3"));
+    }
+
 }
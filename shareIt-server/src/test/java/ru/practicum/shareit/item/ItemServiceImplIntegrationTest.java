@@ -3,6 +3,8 @@ package ru.practicum.shareit.item;
 import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -14,6 +16,8 @@ import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.comment.CommentRepository;
 import ru.practicum.shareit.comment.dto.CommentDto;
 import ru.practicum.shareit.comment.model.Comment;
+import ru.practicum.shareit.item.dto.IntervalDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.ItemRequestRepository;
@@ -21,8 +25,11 @@ import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
+import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
@@ -50,6 +57,9 @@ public class ItemServiceImplIntegrationTest {
     @Autowired
     private final CommentRepository commentRepository;
 
+    @Autowired
+    private final EntityManager entityManager;
+
     private User user1;
     private User user2;
     private ItemRequest itemRequest;
@@ -193,6 +203,33 @@ public class ItemServiceImplIntegrationTest {
         assertThat(actualList, equalTo(List.of(expectedItemDto1, expectedItemDto2)));
     }
 
+    @Test
+    void getItemsByUserStatementCountDoesNotGrowWithItemsTest() {
+        long statementsForTwoItems = countStatementsOfGetItemsByUser(user1.getId());
+        for (int i = 0; i < 20; i++) {
+            Item item = itemRepository.save(Item.builder()
+                    .name("item" + i)
+                    .description("description" + i)
+                    .available(true)
+                    .owner(user1)
+                    .build());
+            commentRepository.save(Comment.builder().text("comment" + i).item(item).author(user2)
+                    .created(LocalDateTime.of(2024, 03, 01, 12, 0)).build());
+            bookingRepository.save(Booking.builder()
+                    .start(LocalDateTime.of(2024, 02, 01, 12, 0))
+                    .end(LocalDateTime.of(2024, 02, 02, 12, 0))
+                    .item(item).booker(user2).status(Status.APPROVED).build());
+            bookingRepository.save(Booking.builder()
+                    .start(LocalDateTime.now().plusDays(1))
+                    .end(LocalDateTime.now().plusDays(2))
+                    .item(item).booker(user2).status(Status.APPROVED).build());
+        }
+
+        long statementsForManyItems = countStatementsOfGetItemsByUser(user1.getId());
+
+        assertThat(statementsForManyItems, equalTo(statementsForTwoItems));
+    }
+
     @Test
     void getAllItemsWithTextTest() {
         String searchString = "TION2";
@@ -203,11 +240,21 @@ public class ItemServiceImplIntegrationTest {
                 .available(true)
                 .build();
 
-        List<ItemDto> actualList = itemService.searchItemsByKeyword(searchString);
+        List<ItemDto> actualList = itemService.searchItemsByKeyword(searchString, 0, 10);
 
         assertThat(actualList, equalTo(List.of(expectedItemDto)));
     }
 
+    @Test
+    void streamItemsWithTextTest() {
+        List<ItemDto> actualList = new ArrayList<>();
+
+        itemService.streamItemsByKeyword("descr", actualList::add);
+
+        assertThat(actualList.stream().map(ItemDto::getId).collect(Collectors.toList()),
+                equalTo(List.of(item1.getId(), item2.getId())));
+    }
+
     @Test
     void addCommentTest() {
         CommentDto newCommentDto = CommentDto.builder().text("new comment").build();
@@ -221,4 +268,84 @@ public class ItemServiceImplIntegrationTest {
         assertThat(actualCommentDto, equalTo(expectedCommentDto));
     }
 
+    @Test
+    void getAvailabilityMergesApprovedBookingsIntoBusyIntervals() {
+        bookingRepository.save(Booking.builder()
+                .start(LocalDateTime.of(2024, 2, 2, 12, 0))
+                .end(LocalDateTime.of(2024, 2, 2, 18, 0))
+                .item(item1).booker(user2).status(Status.APPROVED).build());
+        bookingRepository.save(Booking.builder()
+                .start(LocalDateTime.of(2024, 2, 3, 0, 0))
+                .end(LocalDateTime.of(2024, 2, 3, 6, 0))
+                .item(item1).booker(user2).status(Status.WAITING).build());
+        LocalDateTime from = LocalDateTime.of(2024, 1, 31, 12, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 2, 3, 12, 0);
+
+        ItemAvailabilityDto availability = itemService.getAvailability(user2.getId(), item1.getId(), from, to);
+
+        assertThat(availability.getBusy(), equalTo(List.of(
+                new IntervalDto(LocalDateTime.of(2024, 2, 1, 12, 0), LocalDateTime.of(2024, 2, 2, 18, 0)))));
+        assertThat(availability.getFree(), equalTo(List.of(
+                new IntervalDto(from, LocalDateTime.of(2024, 2, 1, 12, 0)),
+                new IntervalDto(LocalDateTime.of(2024, 2, 2, 18, 0), to))));
+    }
+
+    @Test
+    void getAvailabilityIsServedFromCacheOnRepeat() {
+        LocalDateTime from = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 3, 1, 0, 0);
+        ItemAvailabilityDto first = itemService.getAvailability(user2.getId(), item1.getId(), from, to);
+
+        long statements = countStatements(() -> itemService.getAvailability(user2.getId(), item1.getId(), from, to));
+
+        // only the user and item lookups, the booking range query is not repeated
+        assertThat(statements, equalTo(2L));
+        assertThat(itemService.getAvailability(user2.getId(), item1.getId(), from, to), equalTo(first));
+    }
+
+    @Test
+    void getAvailabilityServesLaterRangesOfItemFromCache() {
+        bookingRepository.save(Booking.builder()
+                .start(LocalDateTime.of(2024, 2, 2, 12, 0))
+                .end(LocalDateTime.of(2024, 2, 2, 18, 0))
+                .item(item1).booker(user2).status(Status.APPROVED).build());
+        itemService.getAvailability(user2.getId(), item1.getId(), LocalDateTime.of(2024, 1, 1, 0, 0),
+                LocalDateTime.of(2024, 1, 2, 0, 0));
+        LocalDateTime from = LocalDateTime.of(2024, 2, 2, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 2, 3, 0, 0);
+        List<ItemAvailabilityDto> availability = new ArrayList<>();
+
+        long statements = countStatements(() ->
+                availability.add(itemService.getAvailability(user2.getId(), item1.getId(), from, to)));
+
+        assertThat(statements, equalTo(2L));
+        assertThat(availability.get(0).getBusy(), equalTo(List.of(
+                new IntervalDto(from, LocalDateTime.of(2024, 2, 2, 18, 0)))));
+    }
+
+    private long countStatements(Runnable action) {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        action.run();
+        long count = statistics.getPrepareStatementCount();
+        statistics.setStatisticsEnabled(false);
+        return count;
+    }
+
+    private long countStatementsOfGetItemsByUser(long userId) {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        itemService.getItemsByUser(userId);
+        long count = statistics.getPrepareStatementCount();
+        statistics.setStatisticsEnabled(false);
+        return count;
+    }
 }
@@ -5,6 +5,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.booking.BookingMapper;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.model.Booking;
@@ -327,7 +328,7 @@ public class ItemServiceImplTest {
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(owner));
         when(itemRepository.findAllByOwnerIdOrderById(eq(userId))).thenReturn(List.of(item));
-        when(commentRepository.findAllByItemId(any(Long.class))).thenReturn(List.of());
+        when(commentRepository.findAllByItemIdIn(List.of(itemId))).thenReturn(List.of());
 
         List<ItemDto> actualList = itemService.getItemsByUser(userId);
 
@@ -358,10 +359,10 @@ public class ItemServiceImplTest {
                 .available(true)
                 .build();
 
-        when(itemRepository.search(eq(searchString)))
+        when(itemRepository.search(eq(searchString), eq(PageRequest.of(0, 10))))
                 .thenReturn(List.of(item));
 
-        List<ItemDto> actualList = itemService.searchItemsByKeyword(searchString);
+        List<ItemDto> actualList = itemService.searchItemsByKeyword(searchString, 0, 10);
 
         assertThat(actualList, equalTo(List.of(expectedItemDto)));
     }
@@ -370,7 +371,7 @@ public class ItemServiceImplTest {
     void getAllItemsWithTextBlankTest() {
         String searchString = "";
 
-        List<ItemDto> actualList = itemService.searchItemsByKeyword(searchString);
+        List<ItemDto> actualList = itemService.searchItemsByKeyword(searchString, 0, 10);
 
         assertThat(actualList, equalTo(List.of()));
     }
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.metrics;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Transactional
+@AutoConfigureMockMvc
+@SpringBootTest(properties = "db.name=admin")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class AccessLogTest {
+    private final Logger logger = (Logger) LoggerFactory.getLogger("shareit.access");
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    @Autowired
+    private final MockMvc mvc;
+
+    @BeforeEach
+    void attachAppender() {
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void detachAppender() {
+        logger.detachAppender(appender);
+    }
+
+    @Test
+    void requestIsLoggedAsOneStructuredLine() throws Exception {
+        mvc.perform(get("/users/{id}", 404).header("X-Sharer-User-Id", 7))
+                .andExpect(status().isNotFound());
+
+        assertThat(appender.list, hasSize(1));
+        assertThat(appender.list.get(0).getFormattedMessage(),
+                containsString("method=GET uri=/users/404 endpoint=\"GET /users/{id}\" status=404"));
+        assertThat(appender.list.get(0).getFormattedMessage(), containsString("user_id=7"));
+    }
+}
@@ -0,0 +1,105 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.autoconfigure.metrics.MetricsProperties;
+import org.springframework.boot.actuate.autoconfigure.metrics.PropertiesMeterFilter;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Transactional
+@AutoConfigureMockMvc
+@SpringBootTest(properties = "db.name=admin")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class LatencyMetricsAspectTest {
+
+    @Autowired
+    private final MockMvc mvc;
+
+    @Autowired
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    private final UserRepository userRepository;
+
+    @Autowired
+    private final MetricsProperties metricsProperties;
+
+    @Test
+    void bookingListIsTimedByEndpointAndState() throws Exception {
+        User user = userRepository.save(User.builder().name("user").email("metrics@yandex.ru").build());
+
+        mvc.perform(get("/bookings").param("state", "PAST").header("X-Sharer-User-Id", user.getId()))
+                .andExpect(status().isOk());
+
+        assertThat(meterRegistry.get(LatencyMetricsAspect.SERVICE_TIMER)
+                .tag("class", "BookingServiceImpl")
+                .tag("method", "getAllBookingsByUser")
+                .tag("endpoint", "GET /bookings")
+                .tag("state", "PAST")
+                .timer().count(), equalTo(1L));
+        assertThat(meterRegistry.get(LatencyMetricsAspect.REPOSITORY_TIMER)
+                .tag("class", "UserRepository")
+                .tag("method", "findById")
+                .tag("endpoint", "GET /bookings")
+                .timer().count() > 0, equalTo(true));
+    }
+
+    @Test
+    void unknownStatesShareOneTag() throws Exception {
+        User user = userRepository.save(User.builder().name("user").email("metrics@yandex.ru").build());
+
+        for (String state : new String[]{"BOGUS-1", "BOGUS-2"}) {
+            mvc.perform(get("/bookings").param("state", state).header("X-Sharer-User-Id", user.getId()))
+                    .andExpect(status().isOk());
+        }
+
+        assertThat(meterRegistry.get(LatencyMetricsAspect.SERVICE_TIMER)
+                .tag("method", "getAllBookingsByUser")
+                .tag("state", "UNKNOWN")
+                .timer().count(), equalTo(2L));
+        assertThat(meterRegistry.find(LatencyMetricsAspect.SERVICE_TIMER).tag("state", "BOGUS-1").timer(),
+                nullValue());
+    }
+
+    @Test
+    void onlyServiceTimersPublishHistogramBuckets() {
+        PropertiesMeterFilter filter = new PropertiesMeterFilter(metricsProperties);
+
+        assertThat(histogramOf(filter, LatencyMetricsAspect.SERVICE_TIMER), equalTo(true));
+        assertThat(histogramOf(filter, LatencyMetricsAspect.REPOSITORY_TIMER), nullValue());
+    }
+
+    @Test
+    void percentilesArePublishedThroughActuator() throws Exception {
+        User user = userRepository.save(User.builder().name("user").email("metrics@yandex.ru").build());
+        mvc.perform(get("/users/{id}", user.getId())).andExpect(status().isOk());
+
+        mvc.perform(get("/actuator/metrics/{name}", LatencyMetricsAspect.SERVICE_TIMER + ".percentile")
+                        .param("tag", "method:get"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.availableTags[?(@.tag == 'phi')].values[*]", hasItem("0.99")));
+    }
+
+    private static Boolean histogramOf(PropertiesMeterFilter filter, String name) {
+        Meter.Id id = new Meter.Id(name, Tags.empty(), null, null, Meter.Type.TIMER);
+        return filter.configure(id, DistributionStatisticConfig.NONE).isPercentileHistogram();
+    }
+}
@@ -0,0 +1,56 @@
+package ru.practicum.shareit.metrics;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+
+class SlowQueryLogTest {
+    private final Logger logger = (Logger) LoggerFactory.getLogger("shareit.slow-query");
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    @BeforeEach
+    void attachAppender() {
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void detachAppender() {
+        logger.detachAppender(appender);
+    }
+
+    @Test
+    void slowStatementIsLoggedOnOneLine() {
+        SlowQueryLog slowQueryLog = new SlowQueryLog(Duration.ofMillis(100), 0);
+
+        slowQueryLog.record("select *\n   from users", TimeUnit.MILLISECONDS.toNanos(150));
+
+        assertThat(appender.list, hasSize(1));
+        assertThat(appender.list.get(0).getLevel(), equalTo(Level.WARN));
+        assertThat(appender.list.get(0).getFormattedMessage(), containsString("sql=\"select * from users\""));
+    }
+
+    @Test
+    void fastStatementIsLoggedOnlyWhenSampled() {
+        new SlowQueryLog(Duration.ofMillis(100), 0).record("select 1", TimeUnit.MILLISECONDS.toNanos(1));
+        assertThat(appender.list, empty());
+
+        new SlowQueryLog(Duration.ofMillis(100), 1).record("select 1", TimeUnit.MILLISECONDS.toNanos(1));
+        assertThat(appender.list, hasSize(1));
+        assertThat(appender.list.get(0).getLevel(), equalTo(Level.INFO));
+    }
+}
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Transactional
+@AutoConfigureMockMvc
+@SpringBootTest(properties = {"db.name=admin", "shareit.sql.statement-warn-threshold=0"})
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class StatementMetricsTest {
+
+    @Autowired
+    private final MockMvc mvc;
+
+    @Autowired
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    private final UserRepository userRepository;
+
+    @Test
+    void statementsAreCountedPerEndpoint() throws Exception {
+        User user = userRepository.save(User.builder().name("user").email("statements@yandex.ru").build());
+        userRepository.flush();
+
+        mvc.perform(get("/bookings").header("X-Sharer-User-Id", user.getId()))
+                .andExpect(status().isOk());
+
+        DistributionSummary statements = meterRegistry.get("shareit.request.sql.statements")
+                .tag("endpoint", "GET /bookings")
+                .summary();
+        assertThat(statements.count(), equalTo(1L));
+        assertThat(statements.totalAmount(), greaterThanOrEqualTo(1.0));
+        assertThat(meterRegistry.get("shareit.request.sql.time")
+                .tag("endpoint", "GET /bookings")
+                .timer().count(), equalTo(1L));
+        assertThat(meterRegistry.get("shareit.request.sql.excessive")
+                .tag("endpoint", "GET /bookings")
+                .counter().count(), equalTo(1.0));
+    }
+
+    @Test
+    void statementsOutsideRequestsAreNotCounted() {
+        userRepository.save(User.builder().name("user").email("outside@yandex.ru").build());
+        userRepository.flush();
+
+        assertThat(meterRegistry.find("shareit.request.sql.statements").tag("endpoint", "none").summary() == null,
+                equalTo(true));
+    }
+}
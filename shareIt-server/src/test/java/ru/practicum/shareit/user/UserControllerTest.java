@@ -8,15 +8,25 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.BookingController;
+import ru.practicum.shareit.booking.exeption.InvalidCursorException;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserPageDto;
 
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -98,6 +108,51 @@ public class UserControllerTest {
                 .andExpect(jsonPath("$[0].id", is(userDtoUpdateOut.getId()), Long.class))
                 .andExpect(jsonPath("$[0].name", is(userDtoUpdateOut.getName())))
                 .andExpect(jsonPath("$[0].email", is(userDtoUpdateOut.getEmail())));
+        verify(mockUserService).getAll();
+    }
+
+    @Test
+    void getUsersPageTest() throws Exception {
+        when(mockUserService.getPage("", 1))
+                .thenReturn(new UserPageDto(List.of(userDtoUpdateOut), String.valueOf(userDtoUpdateOut.getId())));
+        mvc.perform(get("/users?cursor=&size=1").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(BookingController.NEXT_CURSOR_HEADER,
+                        String.valueOf(userDtoUpdateOut.getId())))
+                .andExpect(jsonPath("$.size()", is(1)))
+                .andExpect(jsonPath("$[0].id", is(userDtoUpdateOut.getId()), Long.class));
+        verify(mockUserService, never()).getAll();
+    }
+
+    @Test
+    void getUsersPageInvalidCursorTest() throws Exception {
+        when(mockUserService.getPage("broken", 10))
+                .thenThrow(new InvalidCursorException("Invalid cursor: broken"));
+        mvc.perform(get("/users?cursor=broken").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getUsersPageWithTooLargeSizeTest() throws Exception {
+        mvc.perform(get("/users?cursor=&size=101").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+        verify(mockUserService, never()).getPage(any(), anyLong());
+    }
+
+    @Test
+    void streamUsersTest() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<UserDto> consumer = invocation.getArgument(0);
+            consumer.accept(userDtoAddOut);
+            consumer.accept(userDtoUpdateOut);
+            return null;
+        }).when(mockUserService).streamAll(any());
+
+        mvc.perform(get("/users/stream").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(mapper.writeValueAsString(userDtoAddOut) + "\n"
+                        + mapper.writeValueAsString(userDtoUpdateOut) + "\n"));
     }
 
     @Test
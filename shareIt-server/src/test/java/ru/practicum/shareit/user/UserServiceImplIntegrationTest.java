@@ -6,14 +6,22 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.exeption.InvalidCursorException;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserPageDto;
 
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @Transactional
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
@@ -26,6 +34,9 @@ public class UserServiceImplIntegrationTest {
     @Autowired
     private final UserRepository userRepository;
 
+    @Autowired
+    private final EntityManager entityManager;
+
     private User user1;
 
     @BeforeEach
@@ -89,4 +100,42 @@ public class UserServiceImplIntegrationTest {
         assertThat(actualUserDto, equalTo(expectedUserDto));
     }
 
+    @Test
+    void getUsersPageByPageTest() {
+        User user2 = userRepository.save(User.builder().name("user2").email("user2@yandex.ru").build());
+
+        UserPageDto firstPage = userService.getPage("", 1);
+        UserPageDto secondPage = userService.getPage(firstPage.getNextCursor(), 1);
+        UserPageDto lastPage = userService.getPage(secondPage.getNextCursor(), 1);
+
+        assertThat(firstPage.getUsers(), equalTo(List.of(UserMapper.toDto(user1))));
+        assertThat(secondPage.getUsers(), equalTo(List.of(UserMapper.toDto(user2))));
+        assertThat(lastPage.getUsers(), equalTo(List.of()));
+        assertThat(lastPage.getNextCursor(), nullValue());
+    }
+
+    @Test
+    void getUsersPageWithInvalidCursorTest() {
+        assertThrows(InvalidCursorException.class, () -> userService.getPage("abc", 10));
+    }
+
+    @Test
+    void streamAllUsersTest() {
+        User user2 = userRepository.save(User.builder().name("user2").email("user2@yandex.ru").build());
+        List<UserDto> streamed = new ArrayList<>();
+
+        userService.streamAll(streamed::add);
+
+        assertThat(streamed, equalTo(List.of(UserMapper.toDto(user1), UserMapper.toDto(user2))));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void streamAllUsersBypassesSecondLevelCacheTest() {
+        entityManager.getEntityManagerFactory().getCache().evict(User.class);
+
+        userService.streamAll(user -> { });
+
+        assertThat(entityManager.getEntityManagerFactory().getCache().contains(User.class, user1.getId()), is(false));
+    }
 }